@@ -0,0 +1,141 @@
+package com.coditas.tool.management.system.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Named executors for @Async work, e.g. @Async(AsyncExecutorConfig.REPORTING_EXECUTOR).
+//Sizes come from async.executors.<name>.* and every executor reports to Micrometer under executor.* tagged name=<bean name>.
+//Boot's TaskExecutorMetricsAutoConfiguration already binds pool gauges for ThreadPoolTaskExecutor beans, so only the
+//task timers and the virtual-thread counts are registered here.
+@Configuration
+public class AsyncExecutorConfig {
+
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+    public static final String REPORTING_EXECUTOR = "reportingExecutor";
+    public static final String SWEEPER_EXECUTOR = "sweeperExecutor";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public AsyncExecutorConfig(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    //Any Executor bean makes Boot back off its own applicationTaskExecutor, which MVC async requests and
+    //unqualified @Async use, so it is declared here from the usual spring.task.execution.* properties
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = MAIL_EXECUTOR)
+    public Executor mailExecutor() {
+        return buildExecutor(MAIL_EXECUTOR, "mail", 2, 4, 500);
+    }
+
+    @Bean(name = REPORTING_EXECUTOR)
+    public Executor reportingExecutor() {
+        return buildExecutor(REPORTING_EXECUTOR, "reporting", 1, 2, 20);
+    }
+
+    @Bean(name = SWEEPER_EXECUTOR)
+    public Executor sweeperExecutor() {
+        return buildExecutor(SWEEPER_EXECUTOR, "sweeper", 4, 4, 8);
+    }
+
+    private Executor buildExecutor(String beanName, String name, int defaultCore, int defaultMax, int defaultQueue) {
+        String prefix = "async.executors." + name + ".";
+        int coreSize = environment.getProperty(prefix + "core-size", Integer.class, defaultCore);
+        int maxSize = environment.getProperty(prefix + "max-size", Integer.class, defaultMax);
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueue);
+        String rejectionPolicy = environment.getProperty(prefix + "rejection-policy", "caller-runs");
+        boolean virtualThreads = environment.getProperty("async.virtual-threads", Boolean.class, false);
+
+        //Virtual threads need JDK 21+, the pool is bounded by a concurrency limit instead of a queue.
+        //It exposes no counts, so the decorator tracks tasks waiting for a slot and running ones itself
+        if (virtualThreads) {
+            AtomicInteger queued = new AtomicInteger();
+            AtomicInteger active = new AtomicInteger();
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxSize);
+            executor.setTaskDecorator(timed(beanName, queued, active));
+
+            Gauge.builder("executor.queued", queued, AtomicInteger::get)
+                    .tag("name", beanName).register(meterRegistry);
+            Gauge.builder("executor.active", active, AtomicInteger::get)
+                    .tag("name", beanName).register(meterRegistry);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(rejectionHandler(rejectionPolicy));
+        executor.setTaskDecorator(timed(beanName, null, null));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    //Records how long a task waited in the queue and how long it ran; optionally keeps queued/running counts
+    private TaskDecorator timed(String name, AtomicInteger queued, AtomicInteger active) {
+        Timer waitTimer = meterRegistry.timer("executor.task.wait", "name", name);
+        Timer runTimer = meterRegistry.timer("executor.task.run", "name", name);
+        boolean counted = queued != null && active != null;
+        return task -> {
+            long submittedAt = System.nanoTime();
+            if (counted) {
+                queued.incrementAndGet();
+            }
+            return () -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                if (!counted) {
+                    runTimer.record(task);
+                    return;
+                }
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    runTimer.record(task);
+                } finally {
+                    active.decrementAndGet();
+                }
+            };
+        };
+    }
+
+    private RejectedExecutionHandler rejectionHandler(String policy) {
+        return switch (policy) {
+            case "abort" -> new ThreadPoolExecutor.AbortPolicy();
+            case "discard" -> new ThreadPoolExecutor.DiscardPolicy();
+            case "discard-oldest" -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            case "caller-runs" -> new ThreadPoolExecutor.CallerRunsPolicy();
+            default -> throw new IllegalArgumentException("Unknown rejection policy: " + policy);
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.coditas.tool.management.system.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+//Tables are still created by Hibernate (ddl-auto=update), so the index migrations can only run once the
+//EntityManagerFactory has built the schema. Boot's own migrate-before-JPA step is turned into a no-op and
+//migrate() is called after the entityManagerFactory instead.
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy deferredMigrationStrategy() {
+        return flyway -> {
+        };
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigrator(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
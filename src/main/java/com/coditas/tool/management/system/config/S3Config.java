@@ -0,0 +1,86 @@
+package com.coditas.tool.management.system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+
+import java.net.URI;
+import java.time.Duration;
+
+//One S3 client of each kind for the whole application; they are thread-safe and own their connection pools
+@Configuration
+public class S3Config {
+
+    @Value("${aws.access.key}")
+    private String awsAccessKey;
+
+    @Value("${aws.secret.key}")
+    private String awsSecretKey;
+
+    @Value("${aws.region}")
+    private String region;
+
+    //Optional, points the clients at a local S3 stand-in such as MinIO
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${aws.s3.connection-timeout:5s}")
+    private Duration connectionTimeout;
+
+    @Value("${aws.s3.multipart.threshold:8MB}")
+    private DataSize multipartThreshold;
+
+    @Value("${aws.s3.multipart.part-size:8MB}")
+    private DataSize partSize;
+
+    @Bean(destroyMethod = "close")
+    public S3Client s3Client() {
+        var builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionTimeout(connectionTimeout)
+                        .tcpKeepAlive(true));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    //Uploads above the threshold are split into parts and sent in parallel
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient() {
+        var builder = S3AsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionTimeout(connectionTimeout))
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(multipartThreshold.toBytes())
+                        .minimumPartSizeInBytes(partSize.toBytes())
+                        .build());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    private StaticCredentialsProvider credentialsProvider() {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(awsAccessKey, awsSecretKey));
+    }
+}
@@ -0,0 +1,5 @@
+package com.coditas.tool.management.system.constant;
+
+public enum EmailStatus {
+    PENDING, SENDING, SENT, FAILED;
+}
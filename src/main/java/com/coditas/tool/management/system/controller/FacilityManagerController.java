@@ -1,8 +1,10 @@
 package com.coditas.tool.management.system.controller;
 
+import com.coditas.tool.management.system.constant.ExportFormat;
 import com.coditas.tool.management.system.constant.ToolCategory;
 import com.coditas.tool.management.system.dto.premises.WorkplaceDTO;
 import com.coditas.tool.management.system.dto.premises.WorkplaceListDTO;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
 import com.coditas.tool.management.system.dto.sharedResponse.SuccessResponse;
 import com.coditas.tool.management.system.dto.tool.*;
 import com.coditas.tool.management.system.dto.user.MgrUpdateReqDTO;
@@ -14,19 +16,24 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -264,6 +271,19 @@ public class FacilityManagerController {
         return ResponseEntity.ok(inventory);
     }
 
+    //Cursor mode: selected when the "cursor" param is present (empty for the first page)
+    @GetMapping(value = "/tool-cribs/{toolCribId}/inventory", params = "cursor")
+    @PreAuthorize("hasAnyRole('" + OWNER + "','" + FACILITYMANAGER + "')")
+    public ResponseEntity<CursorPage<ToolInventoryDTO>> getToolInventoryOfToolCribByCursor(
+            @PathVariable Long toolCribId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
+            @RequestParam(required = false, defaultValue = "false") boolean filterLowStock
+    ) {
+        return ResponseEntity.ok(toolInventoryService.getToolInventoryForToolCrib(toolCribId,
+                cursor, size, filterLowStock));
+    }
+
 
 
 
@@ -334,4 +354,34 @@ public class FacilityManagerController {
         return ResponseEntity.ok(toolInventoryLogService.getLogs(page, size, minDateTime, maxDateTime));
     }
 
+    //Cursor mode: selected when the "cursor" param is present (empty for the first page)
+    @GetMapping(value = "/tool-logs", params = "cursor")
+    @PreAuthorize("hasAnyRole('" + OWNER + "','" + FACILITYMANAGER + "')")
+    public ResponseEntity<CursorPage<ToolInventoryLogDTO>> getAllToolInventoryLogsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(100) int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime minDateTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime maxDateTime
+    ) {
+        return ResponseEntity.ok(toolInventoryLogService.getLogs(cursor, size, minDateTime, maxDateTime));
+    }
+
+    //Full export of the same log window, streamed as csv or ndjson instead of paged
+    @GetMapping("/tool-logs/export")
+    @PreAuthorize("hasAnyRole('" + OWNER + "','" + FACILITYMANAGER + "')")
+    public void exportToolInventoryLogs(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime minDateTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime maxDateTime,
+            HttpServletResponse response
+    ) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"tool-logs." + exportFormat.getExtension() + "\"");
+
+        toolInventoryLogService.exportLogs(exportFormat, minDateTime, maxDateTime, response.getOutputStream());
+    }
+
 }
@@ -21,6 +21,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +29,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static com.coditas.tool.management.system.constant.AuthorityConstant.OWNER;
@@ -307,6 +309,23 @@ public class OwnerController {
         return ResponseEntity.ok(reportService.getTopPricedTools());
     }
 
+    //groupBy: facility | workplace | toolCrib | tool, bucket: day | week | month
+    @GetMapping("/reports/usage")
+    @PreAuthorize("hasRole('" + OWNER + "')")
+    public ResponseEntity<SuccessResponse> getUsageReport(
+            @RequestParam(defaultValue = "facility") String groupBy,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long facilityId,
+            @RequestParam(required = false) Long workplaceId,
+            @RequestParam(required = false) Long toolCribId,
+            @RequestParam(required = false) Long toolId
+    ) {
+        return ResponseEntity.ok(reportService.getUsageReport(groupBy, bucket, from, to,
+                facilityId, workplaceId, toolCribId, toolId));
+    }
+
     //View Whole Organization
     @GetMapping("/employees")
     @PreAuthorize("hasRole('" + OWNER + "')")
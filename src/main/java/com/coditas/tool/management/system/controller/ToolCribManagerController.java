@@ -1,26 +1,34 @@
 package com.coditas.tool.management.system.controller;
 
+import com.coditas.tool.management.system.constant.ExportFormat;
 import com.coditas.tool.management.system.constant.ToolCategory;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
 import com.coditas.tool.management.system.dto.sharedResponse.SuccessResponse;
 import com.coditas.tool.management.system.dto.tool.ToolInventoryDTO;
 import com.coditas.tool.management.system.dto.tool.ToolRequestItemDTO;
 import com.coditas.tool.management.system.dto.tool.ToolReturnRequestDTO;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
 import com.coditas.tool.management.system.service.InventoryService;
 import com.coditas.tool.management.system.service.ToolRequestService;
 import com.coditas.tool.management.system.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -60,6 +68,46 @@ public class ToolCribManagerController {
         return ResponseEntity.ok(requests);
     }
 
+    //Cursor mode: selected when the "cursor" param is present (empty for the first page)
+    @GetMapping(value = "/all-requests", params = "cursor")
+    @PreAuthorize("hasRole('"+TOOLCRIBMANAGER+"')")
+    public ResponseEntity<CursorPage<ToolRequestItemDTO>> getAllToolRequestsForCribManagerByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDateTime,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDateTime) {
+
+        return ResponseEntity.ok(toolRequestService.getAllToolRequestsForCribManager(
+                cursor, size, search, fields, startDateTime, endDateTime));
+    }
+
+    //Full export with the same filters as /all-requests, streamed as csv or ndjson instead of paged
+    @GetMapping("/all-requests/export")
+    @PreAuthorize("hasRole('"+TOOLCRIBMANAGER+"')")
+    public void exportToolRequestsForCribManager(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDateTime,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDateTime,
+            HttpServletResponse response) throws IOException {
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"tool-requests." + exportFormat.getExtension() + "\"");
+
+        toolRequestService.exportToolRequestsForCribManager(exportFormat, search, fields,
+                startDateTime, endDateTime, response.getOutputStream());
+    }
+
 
 
     @Operation(summary = "Approve/Reject Normal Tool Request", description = "Tool Crib Manager " +
@@ -100,7 +148,7 @@ public class ToolCribManagerController {
     @GetMapping("/inventory")
     @PreAuthorize("hasRole('" + TOOLCRIBMANAGER + "')")
     public ResponseEntity<Page<ToolInventoryDTO>> getInventoryForToolCribManager(
-            Authentication authentication,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String name,
@@ -109,9 +157,8 @@ public class ToolCribManagerController {
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice
     ) {
-        String email = authentication.getName();
         Page<ToolInventoryDTO> inventory = inventoryService.getInventoryForToolCribManager(
-                email, name, category, isPerishable, minPrice, maxPrice, page, size
+                currentUser, name, category, isPerishable, minPrice, maxPrice, page, size
         );
         return ResponseEntity.ok(inventory);
     }
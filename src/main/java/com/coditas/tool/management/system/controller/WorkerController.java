@@ -1,23 +1,28 @@
 package com.coditas.tool.management.system.controller;
 
 import com.coditas.tool.management.system.constant.ToolCategory;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
 import com.coditas.tool.management.system.dto.sharedResponse.SuccessResponse;
 import com.coditas.tool.management.system.dto.tool.ToolInventoryDTO;
 import com.coditas.tool.management.system.dto.tool.ToolRequestCreateDTO;
 import com.coditas.tool.management.system.dto.tool.ToolRequestItemDTO;
+import com.coditas.tool.management.system.dto.tool.ToolSuggestionDTO;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
 import com.coditas.tool.management.system.service.InventoryService;
 import com.coditas.tool.management.system.service.ToolRequestService;
+import com.coditas.tool.management.system.service.ToolSuggestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,17 +37,20 @@ public class WorkerController {
 
     private final InventoryService inventoryService;
     private final ToolRequestService toolRequestService;
+    private final ToolSuggestService toolSuggestService;
 
     @Autowired
-    public WorkerController(InventoryService inventoryService, ToolRequestService toolRequestService) {
+    public WorkerController(InventoryService inventoryService, ToolRequestService toolRequestService,
+                            ToolSuggestService toolSuggestService) {
         this.inventoryService = inventoryService;
         this.toolRequestService = toolRequestService;
+        this.toolSuggestService = toolSuggestService;
     }
 
     @GetMapping("/inventory")
     @PreAuthorize("hasAnyRole('" + OWNER + "','" + FACILITYMANAGER + "','" + WORKPLACEMANAGER + "','" + WORKER + "')")
     public ResponseEntity<Page<ToolInventoryDTO>> viewInventory(
-            Authentication authentication,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "10") @Min(1) int size,
             @RequestParam(required = false) String name,
@@ -51,13 +59,23 @@ public class WorkerController {
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice
     ) {
-        String email = authentication.getName();
         Page<ToolInventoryDTO> inventoryPage = inventoryService.getInventoryForWorker(
-                email, name, isPerishable, category, minPrice, maxPrice, page, size
+                currentUser, name, isPerishable, category, minPrice, maxPrice, page, size
         );
         return ResponseEntity.ok(inventoryPage);
     }
 
+    //Typeahead for the request screen, answered from the in-memory crib index
+    @GetMapping("/inventory/suggest")
+    @PreAuthorize("hasAnyRole('" + OWNER + "','" + FACILITYMANAGER + "','" + WORKPLACEMANAGER + "','" + WORKER + "')")
+    public ResponseEntity<List<ToolSuggestionDTO>> suggestTools(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(20) int limit
+    ) {
+        return ResponseEntity.ok(toolSuggestService.suggest(currentUser, q, limit));
+    }
+
 
     @Operation(
             summary = "Request tools from tool crib",
@@ -76,10 +94,9 @@ public class WorkerController {
     @PreAuthorize("hasRole('" + WORKER + "')")
     public ResponseEntity<SuccessResponse> requestTools(
             @Valid @RequestBody ToolRequestCreateDTO requestDTO,
-            Authentication authentication
+            @AuthenticationPrincipal AuthenticatedUser currentUser
     ) {
-        String email = authentication.getName();
-        return ResponseEntity.ok(toolRequestService.createToolRequest(email, requestDTO));
+        return ResponseEntity.ok(toolRequestService.createToolRequest(currentUser, requestDTO));
 
     }
 
@@ -99,4 +116,16 @@ public class WorkerController {
         Page<ToolRequestItemDTO> requestItems = toolRequestService.getToolRequestsByWorker(toolName, approvalStatus, page, size);
         return ResponseEntity.ok(requestItems);
     }
+
+    //Cursor mode: selected when the "cursor" param is present (empty for the first page)
+    @GetMapping(value = "/my-requests", params = "cursor")
+    @PreAuthorize("hasRole('" + WORKER + "')")
+    public ResponseEntity<CursorPage<ToolRequestItemDTO>> getMyToolRequestsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
+            @RequestParam(required = false) String toolName,
+            @RequestParam(required = false) String approvalStatus
+    ) {
+        return ResponseEntity.ok(toolRequestService.getToolRequestsByWorker(toolName, approvalStatus, cursor, size));
+    }
 }
@@ -9,6 +9,7 @@ import com.coditas.tool.management.system.dto.user.MgrUpdateReqDTO;
 import com.coditas.tool.management.system.dto.user.UserDTO;
 import com.coditas.tool.management.system.dto.user.UserListDTO;
 import com.coditas.tool.management.system.dto.user.WorkerListDTO;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
 import com.coditas.tool.management.system.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,6 +24,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -322,7 +324,7 @@ public class WorkplaceManagerController {
     @GetMapping("/inventory")
     @PreAuthorize("hasAnyRole('" + OWNER + "','" + FACILITYMANAGER + "','" + WORKPLACEMANAGER + "')")
     public ResponseEntity<Page<ToolInventoryDTO>> viewInventory(
-            Authentication authentication,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
 
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -333,9 +335,8 @@ public class WorkplaceManagerController {
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice
     ) {
-        String email = authentication.getName();
         Page<ToolInventoryDTO> inventoryPage = inventoryService.getInventoryForManager(
-                email, name, isPerishable, category, minPrice, maxPrice, page, size
+                currentUser, name, isPerishable, category, minPrice, maxPrice, page, size
         );
         return ResponseEntity.ok(inventoryPage);
     }
@@ -0,0 +1,55 @@
+package com.coditas.tool.management.system.dto.sharedResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+//Slice-style response for keyset (seek) pagination: no offset and no count query.
+//nextCursor is opaque to clients and is passed back as the "cursor" request param.
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    //Builds the page from rows fetched with size + 1, the extra row only tells if there is a next page
+    public static <E, T> CursorPage<T> of(List<E> rows, int size,
+                                         Function<E, String> keyExtractor, Function<E, T> mapper) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encode(keyExtractor.apply(pageRows.get(pageRows.size() - 1))) : null;
+        List<T> content = pageRows.stream().map(mapper).toList();
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    public static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //Returns null for the first page (missing or blank cursor)
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
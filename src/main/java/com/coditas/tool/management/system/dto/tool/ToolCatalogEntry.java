@@ -0,0 +1,25 @@
+package com.coditas.tool.management.system.dto.tool;
+
+import com.coditas.tool.management.system.constant.ToolCategory;
+import com.coditas.tool.management.system.entity.Tool;
+import lombok.*;
+
+//Immutable snapshot of a catalog tool, safe to share between requests
+@Getter
+@Builder
+@AllArgsConstructor
+public class ToolCatalogEntry {
+    private final Long id;
+    private final String name;
+    private final Long price;
+    private final Long fineAmount;
+    private final ToolCategory category;
+    private final Boolean isPerishable;
+    private final Integer returnPeriod;
+    private final String toolImageUrl;
+    private final String toolThumbnailUrl;
+
+    public String listingImageUrl() {
+        return Tool.listingImageUrl(toolThumbnailUrl, toolImageUrl);
+    }
+}
@@ -31,4 +31,6 @@ public class ToolDTO {
 
     private String toolImageUrl;
 
+    private String toolThumbnailUrl;
+
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.coditas.tool.management.system.dto.tool;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//Published once when an inventory row falls below its minimum threshold
+@Getter
+@AllArgsConstructor
+public class ToolRestockEvent {
+    private final Long toolCribId;
+    private final Long toolId;
+    private final Long availableQuantity;
+    private final Long minimumThreshold;
+}
@@ -0,0 +1,15 @@
+package com.coditas.tool.management.system.dto.tool;
+
+import com.coditas.tool.management.system.constant.ToolCategory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//Immutable typeahead row, shared between requests by the in-memory index
+@Getter
+@AllArgsConstructor
+public class ToolSuggestionDTO {
+    private final Long toolId;
+    private final String toolName;
+    private final ToolCategory toolCategory;
+    private final String toolImageUrl;
+}
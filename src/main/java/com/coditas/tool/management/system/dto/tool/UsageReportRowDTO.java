@@ -0,0 +1,23 @@
+package com.coditas.tool.management.system.dto.tool;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsageReportRowDTO {
+    private LocalDate bucketStart;
+    private Long groupId;
+    private String groupName;
+    private Long requestCount;
+    private Long requestedQuantity;
+    private Long approvedQuantity;
+    private Long returnedQuantity;
+    private Long brokenQuantity;
+    private Long fineAmount;
+    private Double utilization; //approved quantity over current total stock of the group
+}
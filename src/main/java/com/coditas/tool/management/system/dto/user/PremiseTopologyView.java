@@ -0,0 +1,10 @@
+package com.coditas.tool.management.system.dto.user;
+
+//Premises tied to a user (null when not applicable for the role)
+public interface PremiseTopologyView {
+    Long getUserId();
+    Long getWorkstationId();
+    Long getWorkplaceId();
+    Long getToolCribId();
+    Long getFacilityId();
+}
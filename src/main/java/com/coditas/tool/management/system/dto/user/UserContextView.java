@@ -0,0 +1,9 @@
+package com.coditas.tool.management.system.dto.user;
+
+//Projection of the user columns needed to build the request principal
+public interface UserContextView {
+    Long getUserId();
+    String getName();
+    String getEmail();
+    Boolean getActive();
+}
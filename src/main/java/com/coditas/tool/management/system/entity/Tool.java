@@ -42,6 +42,9 @@ public class Tool {
     @Column(name = "tool_image_url")
     private String toolImageUrl;
 
+    @Column(name = "tool_thumbnail_url")
+    private String toolThumbnailUrl;
+
     @Enumerated(value = EnumType.STRING)
     @Column(name = "category")
     private ToolCategory category;
@@ -50,4 +53,12 @@ public class Tool {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    //Listings show the thumbnail; tools uploaded before thumbnails existed fall back to the full image
+    public static String listingImageUrl(String thumbnailUrl, String imageUrl) {
+        return thumbnailUrl != null ? thumbnailUrl : imageUrl;
+    }
+
+    public String listingImageUrl() {
+        return listingImageUrl(toolThumbnailUrl, toolImageUrl);
+    }
 }
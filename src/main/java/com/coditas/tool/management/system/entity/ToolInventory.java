@@ -39,6 +39,10 @@ public class ToolInventory {
     @Column(name = "minimum_threshold")
     private Long minimumThreshold; //to trigger restock warnings
 
+    //available < minimum threshold, maintained by LowStockService on every stock movement
+    @Column(name = "low_stock", nullable = false, columnDefinition = "boolean default false")
+    private boolean lowStock;
+
     @UpdateTimestamp
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
@@ -0,0 +1,37 @@
+package com.coditas.tool.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+//Daily rollup per tool crib and tool, written as request/approval/return events happen.
+//Workplace and facility are derived through tool_cribs at query time; week and month windows are sums of days.
+@Entity
+@Table(name = "tool_usage_daily")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ToolUsageDaily {
+
+    @EmbeddedId
+    private ToolUsageDailyId id;
+
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+
+    @Column(name = "requested_quantity", nullable = false)
+    private Long requestedQuantity;
+
+    @Column(name = "approved_quantity", nullable = false)
+    private Long approvedQuantity;
+
+    @Column(name = "returned_quantity", nullable = false)
+    private Long returnedQuantity;
+
+    @Column(name = "broken_quantity", nullable = false)
+    private Long brokenQuantity;
+
+    @Column(name = "fine_amount", nullable = false)
+    private Long fineAmount;
+}
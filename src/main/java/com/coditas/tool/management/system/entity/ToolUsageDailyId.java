@@ -0,0 +1,26 @@
+package com.coditas.tool.management.system.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class ToolUsageDailyId implements Serializable {
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "tool_crib_id", nullable = false)
+    private Long toolCribId;
+
+    @Column(name = "tool_id", nullable = false)
+    private Long toolId;
+}
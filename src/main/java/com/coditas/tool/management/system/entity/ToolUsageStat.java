@@ -0,0 +1,31 @@
+package com.coditas.tool.management.system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+//Running totals per tool for the owner dashboard, kept up to date on request and return events.
+//No FK to tools so deleting a tool is never blocked by its statistics.
+@Entity
+@Table(name = "tool_usage_stats")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ToolUsageStat {
+
+    @Id
+    @Column(name = "tool_id")
+    private Long toolId;
+
+    @Column(name = "demanded_quantity", nullable = false)
+    private Long demandedQuantity;
+
+    @Column(name = "broken_quantity", nullable = false)
+    private Long brokenQuantity;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,79 @@
+package com.coditas.tool.management.system.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+//Read-only view of every employee with its premises resolved, one row per user and role (and per premise
+//when a user holds several), keyed by the ids that make the row unique.
+//Users whose premises are not assigned yet are left out, owners are always listed.
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor
+@Subselect("""
+        SELECT concat_ws(':', u.id, r.id, f.id, wpm.id, tcm.tool_crib_id, ws.id) AS row_key,
+               u.id AS user_id, u.email AS email, u.name AS name, r.role AS role,
+               COALESCE(f.name, wpf.name) AS facility_name,
+               wp.name AS workplace_name,
+               tc.name AS tool_crib_name,
+               ws.station_code AS workstation_code,
+               COALESCE(fw.workplace_names, CAST('{}' AS varchar[])) AS workplace_names
+        FROM users u
+        JOIN user_role ur ON ur.user_id = u.id
+        JOIN roles r ON r.id = ur.role_id
+        LEFT JOIN facilities f ON r.role = 'ROLE_FACILITYMANAGER' AND f.facility_manager_id = u.id
+        LEFT JOIN (SELECT facility_id, array_agg(name ORDER BY id) AS workplace_names
+                   FROM workplaces GROUP BY facility_id) fw ON fw.facility_id = f.id
+        LEFT JOIN workstations ws ON r.role = 'ROLE_WORKER' AND ws.worker_id = u.id
+        LEFT JOIN tool_crib_managers tcm ON r.role = 'ROLE_TOOLCRIBMANAGER' AND tcm.tool_crib_manager_id = u.id
+        LEFT JOIN tool_cribs tcmc ON tcmc.id = tcm.tool_crib_id
+        LEFT JOIN workplaces wpm ON r.role = 'ROLE_WORKPLACEMANAGER' AND wpm.workplace_manager_id = u.id
+        LEFT JOIN workplaces wp ON wp.id = COALESCE(ws.workplace_id, wpm.id, tcmc.workplace_id)
+        LEFT JOIN facilities wpf ON wpf.id = wp.facility_id
+        LEFT JOIN tool_cribs tc ON tc.workplace_id = wp.id
+        WHERE r.role = 'ROLE_OWNER'
+           OR (r.role = 'ROLE_FACILITYMANAGER' AND f.id IS NOT NULL)
+           OR (r.role IN ('ROLE_WORKPLACEMANAGER', 'ROLE_TOOLCRIBMANAGER', 'ROLE_WORKER') AND tc.id IS NOT NULL)
+        """)
+@Synchronize({"users", "user_role", "roles", "facilities", "workplaces", "workstations",
+        "tool_cribs", "tool_crib_managers"})
+public class UserHierarchyView {
+
+    @Id
+    @Column(name = "row_key")
+    private String rowKey;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "role")
+    private String role;
+
+    @Column(name = "facility_name")
+    private String facilityName;
+
+    @Column(name = "workplace_name")
+    private String workplaceName;
+
+    @Column(name = "tool_crib_name")
+    private String toolCribName;
+
+    @Column(name = "workstation_code")
+    private String workstationCode;
+
+    //Empty unless the row is a facility manager's
+    @Column(name = "workplace_names")
+    private String[] workplaceNames;
+}
@@ -0,0 +1,26 @@
+package com.coditas.tool.management.system.repository;
+
+import com.coditas.tool.management.system.constant.EmailStatus;
+import com.coditas.tool.management.system.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    //Rows locked by another dispatcher instance are skipped instead of waited on.
+    //SENDING rows are only due again once their claim lease (next_attempt_at) has expired
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    long countByStatus(EmailStatus status);
+}
@@ -2,12 +2,18 @@ package com.coditas.tool.management.system.repository;
 
 import com.coditas.tool.management.system.entity.ToolInventoryLog;
 import com.coditas.tool.management.system.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ToolInventoryLogRepository extends JpaRepository<ToolInventoryLog, Long> {
     List<ToolInventoryLog> findByAssignedByOrderByAssignedAtDesc(User assignedBy);
@@ -16,4 +22,18 @@ public interface ToolInventoryLogRepository extends JpaRepository<ToolInventoryL
 
     Page<ToolInventoryLog> findByAssignedByAndAssignedAtBetween(User user, LocalDateTime start,
                                                                 LocalDateTime end, Pageable pageable);
+
+    //Keyset variant: ids grow with assignedAt, so seeking below the last id keeps newest-first order
+    @EntityGraph(attributePaths = {"tool", "toolCrib", "workplace", "assignedBy"})
+    List<ToolInventoryLog> findByAssignedByAndAssignedAtBetweenAndIdLessThanOrderByIdDesc(
+            User user, LocalDateTime start, LocalDateTime end, Long lastId, Limit limit);
+
+    //Export: forward-only cursor, rows are only read and mapped so Hibernate keeps no snapshots
+    @EntityGraph(attributePaths = {"tool", "toolCrib", "workplace", "assignedBy"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ToolInventoryLog> streamByAssignedByAndAssignedAtBetweenOrderByIdDesc(
+            User user, LocalDateTime start, LocalDateTime end);
 }
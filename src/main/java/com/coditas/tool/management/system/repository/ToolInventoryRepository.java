@@ -1,6 +1,7 @@
 package com.coditas.tool.management.system.repository;
 
-import com.coditas.tool.management.system.dto.tool.TopToolReportDTO;
+import com.coditas.tool.management.system.dto.tool.ToolRestockEvent;
+import com.coditas.tool.management.system.dto.tool.ToolSuggestionDTO;
 import com.coditas.tool.management.system.entity.Tool;
 import com.coditas.tool.management.system.entity.ToolCrib;
 import com.coditas.tool.management.system.entity.ToolInventory;
@@ -8,15 +9,84 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ToolInventoryRepository extends JpaRepository<ToolInventory, Long> {
+public interface ToolInventoryRepository extends JpaRepository<ToolInventory, Long>,
+        JpaSpecificationExecutor<ToolInventory> {
     Optional<ToolInventory> findByToolCribAndTool(ToolCrib toolCrib, Tool tool);
     List<ToolInventory> findByToolCribId(Long toolCribId);
 
+    @Query("SELECT ti FROM ToolInventory ti JOIN FETCH ti.tool t WHERE ti.toolCrib = :toolCrib AND t.id IN :toolIds")
+    List<ToolInventory> findByToolCribAndToolIdIn(@Param("toolCrib") ToolCrib toolCrib,
+                                                  @Param("toolIds") Collection<Long> toolIds);
+
+    boolean existsByToolCribIdAndToolId(Long toolCribId, Long toolId);
+
+    @Modifying
+    @Query("UPDATE ToolInventory ti SET ti.availableQuantity = ti.availableQuantity - :quantity, " +
+            "ti.lastUpdated = CURRENT_TIMESTAMP " +
+            "WHERE ti.toolCrib.id = :toolCribId AND ti.tool.id = :toolId AND ti.availableQuantity >= :quantity")
+    int reserveQuantity(@Param("toolCribId") Long toolCribId, @Param("toolId") Long toolId,
+                        @Param("quantity") long quantity);
+
+    @Modifying
+    @Query("UPDATE ToolInventory ti SET ti.availableQuantity = ti.availableQuantity + :quantity, " +
+            "ti.lastUpdated = CURRENT_TIMESTAMP " +
+            "WHERE ti.toolCrib.id = :toolCribId AND ti.tool.id = :toolId")
+    int releaseQuantity(@Param("toolCribId") Long toolCribId, @Param("toolId") Long toolId,
+                        @Param("quantity") long quantity);
+
+    @Modifying
+    @Query("UPDATE ToolInventory ti SET ti.brokenQuantity = COALESCE(ti.brokenQuantity, 0) + :quantity, " +
+            "ti.lastUpdated = CURRENT_TIMESTAMP " +
+            "WHERE ti.toolCrib.id = :toolCribId AND ti.tool.id = :toolId")
+    int commitBrokenQuantity(@Param("toolCribId") Long toolCribId, @Param("toolId") Long toolId,
+                             @Param("quantity") long quantity);
+
+    @Modifying
+    @Query("UPDATE ToolInventory ti SET ti.availableQuantity = ti.availableQuantity + :quantity, " +
+            "ti.totalQuantity = ti.totalQuantity + :quantity, ti.lastUpdated = CURRENT_TIMESTAMP " +
+            "WHERE ti.toolCrib.id = :toolCribId AND ti.tool.id = :toolId")
+    int restockQuantity(@Param("toolCribId") Long toolCribId, @Param("toolId") Long toolId,
+                        @Param("quantity") long quantity);
+
+    //Low-stock flag flips: each matches only when the row actually crossed the threshold
+    @Modifying
+    @Query("UPDATE ToolInventory ti SET ti.lowStock = true " +
+            "WHERE ti.toolCrib.id = :toolCribId AND ti.tool.id = :toolId AND ti.lowStock = false " +
+            "AND ti.availableQuantity < ti.minimumThreshold")
+    int markLowStock(@Param("toolCribId") Long toolCribId, @Param("toolId") Long toolId);
+
+    @Modifying
+    @Query("UPDATE ToolInventory ti SET ti.lowStock = false " +
+            "WHERE ti.toolCrib.id = :toolCribId AND ti.tool.id = :toolId AND ti.lowStock = true " +
+            "AND (ti.minimumThreshold IS NULL OR ti.availableQuantity >= ti.minimumThreshold)")
+    int clearLowStock(@Param("toolCribId") Long toolCribId, @Param("toolId") Long toolId);
+
+    @Modifying
+    @Query(value = "UPDATE tool_inventory SET low_stock = COALESCE(available_quantity < minimum_threshold, false) " +
+            "WHERE low_stock IS DISTINCT FROM COALESCE(available_quantity < minimum_threshold, false)",
+            nativeQuery = true)
+    int resyncLowStock();
+
+    @Query("SELECT new com.coditas.tool.management.system.dto.tool.ToolRestockEvent(" +
+            "ti.toolCrib.id, ti.tool.id, ti.availableQuantity, ti.minimumThreshold) " +
+            "FROM ToolInventory ti WHERE ti.toolCrib.id = :toolCribId AND ti.tool.id = :toolId")
+    Optional<ToolRestockEvent> findRestockEvent(@Param("toolCribId") Long toolCribId, @Param("toolId") Long toolId);
+
+    //Typeahead index load, one row per tool in the crib
+    @Query("SELECT new com.coditas.tool.management.system.dto.tool.ToolSuggestionDTO(" +
+            "t.id, t.name, t.category, COALESCE(t.toolThumbnailUrl, t.toolImageUrl)) " +
+            "FROM ToolInventory ti JOIN ti.tool t WHERE ti.toolCrib.id = :toolCribId")
+    List<ToolSuggestionDTO> findSuggestionsByToolCribId(@Param("toolCribId") Long toolCribId);
+
     Page<ToolInventory> findByToolCribIdAndToolNameContainingIgnoreCase(Long toolCribId,
                                                                         String toolName, Pageable pageable);
 
@@ -27,14 +97,4 @@ public interface ToolInventoryRepository extends JpaRepository<ToolInventory, Lo
 
     Page<ToolInventory> findAll(Specification<ToolInventory> spec, Pageable pageable);
 
-    @Query("""
-    SELECT new com.coditas.tool.management.system.dto.tool.TopToolReportDTO(t.name, 
-    COALESCE(SUM(ti.brokenQuantity), 0)) 
-    FROM ToolInventory ti
-    JOIN ti.tool t
-    GROUP BY t.name
-    ORDER BY SUM(ti.brokenQuantity) DESC
-    """)
-    List<TopToolReportDTO> findTopBrokenTools(); //report
-
 }
\ No newline at end of file
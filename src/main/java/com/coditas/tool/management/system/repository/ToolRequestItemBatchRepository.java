@@ -0,0 +1,11 @@
+package com.coditas.tool.management.system.repository;
+
+import com.coditas.tool.management.system.entity.ToolRequestItem;
+
+import java.util.List;
+
+public interface ToolRequestItemBatchRepository {
+
+    //Inserts all items of a request in a single JDBC batch (IDENTITY ids disable Hibernate insert batching)
+    void batchInsert(List<ToolRequestItem> items);
+}
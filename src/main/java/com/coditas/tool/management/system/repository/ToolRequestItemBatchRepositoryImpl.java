@@ -0,0 +1,49 @@
+package com.coditas.tool.management.system.repository;
+
+import com.coditas.tool.management.system.entity.ToolRequestItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.List;
+
+public class ToolRequestItemBatchRepositoryImpl implements ToolRequestItemBatchRepository {
+
+    private static final String INSERT_ITEM_SQL = """
+            INSERT INTO tool_request_items
+            (request_id, tool_id, req_quantity, ret_quantity, brk_quantity, approval_status, return_status, fine)
+            VALUES
+            (:requestId, :toolId, :reqQuantity, :retQuantity, :brkQuantity, :approvalStatus, :returnStatus, :fine)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ToolRequestItemBatchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<ToolRequestItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        SqlParameterSource[] batch = items.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("requestId", item.getToolRequest().getId())
+                        .addValue("toolId", item.getTool().getId())
+                        .addValue("reqQuantity", item.getReqQuantity())
+                        .addValue("retQuantity", item.getRetQuantity())
+                        .addValue("brkQuantity", item.getBrkQuantity())
+                        .addValue("approvalStatus", item.getApprovalStatus() != null
+                                ? item.getApprovalStatus().name() : null)
+                        .addValue("returnStatus", item.getReturnStatus() != null
+                                ? item.getReturnStatus().name() : null)
+                        .addValue("fine", item.getFine()))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, batch);
+    }
+}
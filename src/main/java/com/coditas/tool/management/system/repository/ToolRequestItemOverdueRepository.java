@@ -0,0 +1,25 @@
+package com.coditas.tool.management.system.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ToolRequestItemOverdueRepository {
+
+    //Keyset position of a pending item in (return_date, id) order
+    record DueKey(long id, LocalDateTime returnDate) {
+    }
+
+    //Transaction-scoped cluster lock for the sweep, false when another instance is already running it
+    boolean tryLockSweep();
+
+    //Next chunk of pending items past their return date, read off the (return_status, return_date, id) index
+    List<DueKey> findOverdueKeys(LocalDateTime now, LocalDateTime afterReturnDate, long afterId, int limit);
+
+    //Sets the running late fine (days late x tool fine) for the given items, skipping rows already up to date
+    int accrueLateFines(List<Long> ids, LocalDate today);
+
+    //Queues one reminder per worker listing their overdue items, at most one per worker and day;
+    //returns the number of mails queued
+    int enqueueOverdueDigests(LocalDateTime now, int maxLinesPerWorker);
+}
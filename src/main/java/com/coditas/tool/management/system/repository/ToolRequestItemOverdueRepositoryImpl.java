@@ -0,0 +1,111 @@
+package com.coditas.tool.management.system.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ToolRequestItemOverdueRepositoryImpl implements ToolRequestItemOverdueRepository {
+
+    //Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long SWEEP_LOCK_KEY = 0x4F56_4552_4455_45L;
+
+    private static final String OVERDUE_KEYS_SQL = """
+            SELECT i.id, i.return_date
+            FROM tool_request_items i
+            WHERE i.return_status = 'PENDING' AND i.return_date < :now
+              AND (i.return_date, i.id) > (:afterReturnDate, :afterId)
+            ORDER BY i.return_date, i.id
+            LIMIT :limit
+            """;
+
+    //return_status is re-checked so a concurrent return (which computes the final fine) always wins
+    private static final String ACCRUE_FINES_SQL = """
+            UPDATE tool_request_items i
+            SET fine = (CAST(:today AS date) - CAST(i.return_date AS date)) * COALESCE(t.fine_amount, 0)
+            FROM tools t
+            WHERE t.id = i.tool_id AND i.id IN (:ids) AND i.return_status = 'PENDING'
+              AND i.fine IS DISTINCT FROM (CAST(:today AS date) - CAST(i.return_date AS date)) * COALESCE(t.fine_amount, 0)
+            """;
+
+    private static final String ENQUEUE_DIGESTS_SQL = """
+            INSERT INTO email_outbox (recipient, subject, body, status, attempts, next_attempt_at, created_at, dedupe_key)
+            SELECT d.email,
+                   'Reminder: ' || d.items || ' overdue tool(s) to return',
+                   'Dear ' || d.name || ',' || chr(10) || chr(10) ||
+                   'The following tools are past their return date:' || chr(10) || d.lines ||
+                   CASE WHEN d.items > :maxLines
+                        THEN chr(10) || '...and ' || (d.items - :maxLines) || ' more' ELSE '' END ||
+                   chr(10) || chr(10) || 'Fine accrued so far: ₹' || d.fine || chr(10) || chr(10) ||
+                   'Please return them to your tool crib as soon as possible.' || chr(10) || chr(10) ||
+                   'Regards,' || chr(10) || 'Tool Management System',
+                   'PENDING', 0, :now, :now,
+                   'overdue-digest:' || d.worker_id || ':' || to_char(CAST(:now AS date), 'YYYY-MM-DD')
+            FROM (
+                SELECT o.worker_id, u.email, u.name, COUNT(*) AS items, SUM(o.fine) AS fine,
+                       string_agg(CASE WHEN o.rn <= :maxLines
+                                       THEN '- ' || o.tool_name || ' x' || o.req_quantity ||
+                                            ' (due ' || to_char(o.return_date, 'YYYY-MM-DD') || ')' END,
+                                  chr(10) ORDER BY o.rn) AS lines
+                FROM (
+                    SELECT tr.worker_id, t.name AS tool_name, i.req_quantity, i.return_date,
+                           COALESCE(i.fine, 0) AS fine,
+                           ROW_NUMBER() OVER (PARTITION BY tr.worker_id ORDER BY i.return_date, i.id) AS rn
+                    FROM tool_request_items i
+                    JOIN tool_requests tr ON tr.id = i.request_id
+                    JOIN tools t ON t.id = i.tool_id
+                    WHERE i.return_status = 'PENDING' AND i.approval_status = 'APPROVED'
+                      AND i.return_date < :now
+                ) o
+                JOIN users u ON u.id = o.worker_id
+                GROUP BY o.worker_id, u.email, u.name
+            ) d
+            ON CONFLICT (dedupe_key) DO NOTHING
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ToolRequestItemOverdueRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean tryLockSweep() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", SWEEP_LOCK_KEY), Boolean.class));
+    }
+
+    @Override
+    public List<DueKey> findOverdueKeys(LocalDateTime now, LocalDateTime afterReturnDate, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", now)
+                .addValue("afterReturnDate", afterReturnDate)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(OVERDUE_KEYS_SQL, params, (rs, rowNum) ->
+                new DueKey(rs.getLong("id"), rs.getObject("return_date", LocalDateTime.class)));
+    }
+
+    @Override
+    public int accrueLateFines(List<Long> ids, LocalDate today) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(ACCRUE_FINES_SQL, new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("today", today));
+    }
+
+    @Override
+    public int enqueueOverdueDigests(LocalDateTime now, int maxLinesPerWorker) {
+        return jdbcTemplate.update(ENQUEUE_DIGESTS_SQL, new MapSqlParameterSource()
+                .addValue("now", now)
+                .addValue("maxLines", maxLinesPerWorker));
+    }
+}
@@ -1,12 +1,15 @@
 package com.coditas.tool.management.system.repository;
 
-import com.coditas.tool.management.system.dto.tool.TopToolReportDTO;
+import com.coditas.tool.management.system.constant.RequestStatus;
 import com.coditas.tool.management.system.entity.ToolRequestItem;
 import com.coditas.tool.management.system.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -14,24 +17,36 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ToolRequestItemRepository extends JpaRepository<ToolRequestItem, Long>,
-        JpaSpecificationExecutor<ToolRequestItem> {
+        JpaSpecificationExecutor<ToolRequestItem>, ToolRequestItemBatchRepository,
+        ToolRequestItemOverdueRepository {
 
     Page<ToolRequestItem> findByToolRequest_Worker(User worker, Pageable pageable);
 
+    //Listings map tool, toolRequest and its worker into ToolRequestItemDTO, so they are fetched
+    //in the same select instead of 1 + 3N lazy loads per page
+    @Override
+    @EntityGraph(attributePaths = {"tool", "toolRequest", "toolRequest.worker"})
+    Page<ToolRequestItem> findAll(Specification<ToolRequestItem> spec, Pageable pageable);
+
     @Query("SELECT t FROM ToolRequestItem t " +
+            "JOIN FETCH t.tool " +
+            "JOIN FETCH t.toolRequest tr " +
+            "JOIN FETCH tr.worker " +
             "WHERE t.returnStatus NOT IN ('RETURNED', 'UNRETURNABLE') " +
             "AND t.approvalStatus NOT IN ('PENDING', 'REJECTED') " +
-            "AND t.toolRequest.workplace.id = :workplaceId")
+            "AND tr.workplace.id = :workplaceId")
     List<ToolRequestItem> findUnreturnedItemsByWorkplaceId(@Param("workplaceId") Long workplaceId);
 
+    //Status transitions are conditional updates, the row lock lets exactly one concurrent caller win (0 = lost)
+    @Modifying
+    @Query("UPDATE ToolRequestItem i SET i.approvalStatus = :decision " +
+            "WHERE i.id = :id AND i.approvalStatus NOT IN ('APPROVED', 'REJECTED')")
+    int claimDecision(@Param("id") Long id, @Param("decision") RequestStatus decision);
 
-    @Query("SELECT new com.coditas.tool.management.system.dto.tool.TopToolReportDTO(tr.tool.name" +
-            ", SUM(tr.reqQuantity)) " +
-            "FROM ToolRequestItem tr " +
-            "GROUP BY tr.tool.name " +
-            "ORDER BY SUM(tr.reqQuantity) DESC")
-    List<TopToolReportDTO> findTopDemandedTools();
-
+    @Modifying
+    @Query("UPDATE ToolRequestItem i SET i.returnStatus = 'RETURNED' " +
+            "WHERE i.id = :id AND i.approvalStatus = 'APPROVED' AND i.returnStatus = 'PENDING'")
+    int claimReturn(@Param("id") Long id);
 
 }
 
@@ -0,0 +1,78 @@
+package com.coditas.tool.management.system.repository;
+
+import com.coditas.tool.management.system.entity.ToolUsageDaily;
+import com.coditas.tool.management.system.entity.ToolUsageDailyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface ToolUsageDailyRepository extends JpaRepository<ToolUsageDaily, ToolUsageDailyId>,
+        ToolUsageRollupQueryRepository {
+
+    //Adds the deltas to the day bucket, creating it on first use
+    @Modifying
+    @Query(value = """
+            INSERT INTO tool_usage_daily (bucket_date, tool_crib_id, tool_id, request_count, requested_quantity,
+                                          approved_quantity, returned_quantity, broken_quantity, fine_amount)
+            VALUES (:day, :toolCribId, :toolId, :requestCount, :requested, :approved, :returned, :broken, :fine)
+            ON CONFLICT (bucket_date, tool_crib_id, tool_id) DO UPDATE
+            SET request_count = tool_usage_daily.request_count + EXCLUDED.request_count,
+                requested_quantity = tool_usage_daily.requested_quantity + EXCLUDED.requested_quantity,
+                approved_quantity = tool_usage_daily.approved_quantity + EXCLUDED.approved_quantity,
+                returned_quantity = tool_usage_daily.returned_quantity + EXCLUDED.returned_quantity,
+                broken_quantity = tool_usage_daily.broken_quantity + EXCLUDED.broken_quantity,
+                fine_amount = tool_usage_daily.fine_amount + EXCLUDED.fine_amount
+            """, nativeQuery = true)
+    void add(@Param("day") LocalDate day, @Param("toolCribId") Long toolCribId, @Param("toolId") Long toolId,
+             @Param("requestCount") long requestCount, @Param("requested") long requested,
+             @Param("approved") long approved, @Param("returned") long returned,
+             @Param("broken") long broken, @Param("fine") long fine);
+
+    //Claims the one-off backfill; 1 for the first caller ever, 0 once it is done (or done by another instance,
+    //which holds the marker row lock until its backfill commits)
+    @Modifying
+    @Query(value = """
+            INSERT INTO maintenance_markers (name, completed_at)
+            VALUES ('tool_usage_daily_backfill', now())
+            ON CONFLICT (name) DO NOTHING
+            """, nativeQuery = true)
+    int claimBackfill();
+
+    //One-off backfill from existing requests. Items carry no approval date, so approvals are put on the request day.
+    //Merged into existing buckets instead of skipping them, so history is never dropped for a day that already has one
+    @Modifying
+    @Query(value = """
+            INSERT INTO tool_usage_daily (bucket_date, tool_crib_id, tool_id, request_count, requested_quantity,
+                                          approved_quantity, returned_quantity, broken_quantity, fine_amount)
+            SELECT e.day, e.tool_crib_id, e.tool_id, SUM(e.request_count), SUM(e.requested), SUM(e.approved),
+                   SUM(e.returned), SUM(e.broken), SUM(e.fine)
+            FROM (
+                SELECT CAST(tr.request_date AS date) AS day, tc.id AS tool_crib_id, i.tool_id,
+                       1 AS request_count, i.req_quantity AS requested,
+                       CASE WHEN i.approval_status = 'APPROVED' THEN i.req_quantity ELSE 0 END AS approved,
+                       0 AS returned, 0 AS broken, 0 AS fine
+                FROM tool_request_items i
+                JOIN tool_requests tr ON tr.id = i.request_id
+                JOIN tool_cribs tc ON tc.workplace_id = tr.workplace_id
+                UNION ALL
+                SELECT CAST(i.return_date AS date), tc.id, i.tool_id, 0, 0, 0,
+                       COALESCE(i.ret_quantity, 0), COALESCE(i.brk_quantity, 0), COALESCE(i.fine, 0)
+                FROM tool_request_items i
+                JOIN tool_requests tr ON tr.id = i.request_id
+                JOIN tool_cribs tc ON tc.workplace_id = tr.workplace_id
+                WHERE i.return_status = 'RETURNED' AND i.return_date IS NOT NULL
+            ) e
+            GROUP BY e.day, e.tool_crib_id, e.tool_id
+            ON CONFLICT (bucket_date, tool_crib_id, tool_id) DO UPDATE
+            SET request_count = tool_usage_daily.request_count + EXCLUDED.request_count,
+                requested_quantity = tool_usage_daily.requested_quantity + EXCLUDED.requested_quantity,
+                approved_quantity = tool_usage_daily.approved_quantity + EXCLUDED.approved_quantity,
+                returned_quantity = tool_usage_daily.returned_quantity + EXCLUDED.returned_quantity,
+                broken_quantity = tool_usage_daily.broken_quantity + EXCLUDED.broken_quantity,
+                fine_amount = tool_usage_daily.fine_amount + EXCLUDED.fine_amount
+            """, nativeQuery = true)
+    int backfill();
+}
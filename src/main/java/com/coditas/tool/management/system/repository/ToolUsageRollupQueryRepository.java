@@ -0,0 +1,13 @@
+package com.coditas.tool.management.system.repository;
+
+import com.coditas.tool.management.system.dto.tool.UsageReportRowDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ToolUsageRollupQueryRepository {
+
+    //groupBy: facility | workplace | toolCrib | tool, bucket: day | week | month; null filters are ignored
+    List<UsageReportRowDTO> aggregate(String groupBy, String bucket, LocalDate from, LocalDate to,
+                                      Long facilityId, Long workplaceId, Long toolCribId, Long toolId);
+}
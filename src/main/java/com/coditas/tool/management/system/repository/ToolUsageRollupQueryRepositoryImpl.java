@@ -0,0 +1,116 @@
+package com.coditas.tool.management.system.repository;
+
+import com.coditas.tool.management.system.dto.tool.UsageReportRowDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public class ToolUsageRollupQueryRepositoryImpl implements ToolUsageRollupQueryRepository {
+
+    //Only whitelisted fragments are ever concatenated into the SQL, every value is a bind parameter
+    private static final Map<String, Dimension> DIMENSIONS = Map.of(
+            "facility", new Dimension("wp.facility_id", "wp.facility_id", "facilities"),
+            "workplace", new Dimension("wp.id", "wp.id", "workplaces"),
+            "toolCrib", new Dimension("tc.id", "tc.id", "tool_cribs"),
+            "tool", new Dimension("r.tool_id", "ti.tool_id", "tools"));
+
+    private static final Map<String, String> BUCKETS = Map.of("day", "day", "week", "week", "month", "month");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ToolUsageRollupQueryRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<UsageReportRowDTO> aggregate(String groupBy, String bucket, LocalDate from, LocalDate to,
+                                             Long facilityId, Long workplaceId, Long toolCribId, Long toolId) {
+        Dimension dimension = DIMENSIONS.get(groupBy);
+        String truncUnit = BUCKETS.get(bucket);
+        if (dimension == null) {
+            throw new IllegalArgumentException("groupBy must be one of " + DIMENSIONS.keySet());
+        }
+        if (truncUnit == null) {
+            throw new IllegalArgumentException("bucket must be one of " + BUCKETS.keySet());
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+        StringBuilder rollupFilters = new StringBuilder();
+        StringBuilder stockFilters = new StringBuilder();
+        if (facilityId != null) {
+            params.addValue("facilityId", facilityId);
+            rollupFilters.append(" AND wp.facility_id = :facilityId");
+            stockFilters.append(" AND wp.facility_id = :facilityId");
+        }
+        if (workplaceId != null) {
+            params.addValue("workplaceId", workplaceId);
+            rollupFilters.append(" AND wp.id = :workplaceId");
+            stockFilters.append(" AND wp.id = :workplaceId");
+        }
+        if (toolCribId != null) {
+            params.addValue("toolCribId", toolCribId);
+            rollupFilters.append(" AND tc.id = :toolCribId");
+            stockFilters.append(" AND tc.id = :toolCribId");
+        }
+        if (toolId != null) {
+            params.addValue("toolId", toolId);
+            rollupFilters.append(" AND r.tool_id = :toolId");
+            stockFilters.append(" AND ti.tool_id = :toolId");
+        }
+
+        String sql = """
+                WITH agg AS (
+                    SELECT CAST(date_trunc('%1$s', CAST(r.bucket_date AS timestamp)) AS date) AS bucket_start,
+                           %2$s AS group_id,
+                           SUM(r.request_count) AS request_count,
+                           SUM(r.requested_quantity) AS requested_quantity,
+                           SUM(r.approved_quantity) AS approved_quantity,
+                           SUM(r.returned_quantity) AS returned_quantity,
+                           SUM(r.broken_quantity) AS broken_quantity,
+                           SUM(r.fine_amount) AS fine_amount
+                    FROM tool_usage_daily r
+                    JOIN tool_cribs tc ON tc.id = r.tool_crib_id
+                    LEFT JOIN workplaces wp ON wp.id = tc.workplace_id
+                    WHERE r.bucket_date BETWEEN :from AND :to%3$s
+                    GROUP BY 1, 2
+                ), stock AS (
+                    SELECT %4$s AS group_id, SUM(ti.total_quantity) AS quantity
+                    FROM tool_inventory ti
+                    JOIN tool_cribs tc ON tc.id = ti.tool_crib_id
+                    LEFT JOIN workplaces wp ON wp.id = tc.workplace_id
+                    WHERE 1 = 1%5$s
+                    GROUP BY 1
+                )
+                SELECT a.*, n.name AS group_name,
+                       CAST(a.approved_quantity AS double precision) / NULLIF(s.quantity, 0) AS utilization
+                FROM agg a
+                LEFT JOIN stock s ON s.group_id = a.group_id
+                LEFT JOIN %6$s n ON n.id = a.group_id
+                ORDER BY a.bucket_start, a.group_id
+                """.formatted(truncUnit, dimension.rollupColumn(), rollupFilters,
+                dimension.stockColumn(), stockFilters, dimension.nameTable());
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> UsageReportRowDTO.builder()
+                .bucketStart(rs.getObject("bucket_start", LocalDate.class))
+                .groupId(rs.getObject("group_id", Long.class))
+                .groupName(rs.getString("group_name"))
+                .requestCount(rs.getLong("request_count"))
+                .requestedQuantity(rs.getLong("requested_quantity"))
+                .approvedQuantity(rs.getLong("approved_quantity"))
+                .returnedQuantity(rs.getLong("returned_quantity"))
+                .brokenQuantity(rs.getLong("broken_quantity"))
+                .fineAmount(rs.getLong("fine_amount"))
+                .utilization(rs.getObject("utilization", Double.class))
+                .build());
+    }
+
+    private record Dimension(String rollupColumn, String stockColumn, String nameTable) {
+    }
+}
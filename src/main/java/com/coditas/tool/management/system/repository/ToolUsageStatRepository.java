@@ -0,0 +1,76 @@
+package com.coditas.tool.management.system.repository;
+
+import com.coditas.tool.management.system.dto.tool.TopToolReportDTO;
+import com.coditas.tool.management.system.entity.ToolUsageStat;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ToolUsageStatRepository extends JpaRepository<ToolUsageStat, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO tool_usage_stats (tool_id, demanded_quantity, broken_quantity, updated_at)
+            VALUES (:toolId, :quantity, 0, now())
+            ON CONFLICT (tool_id) DO UPDATE
+            SET demanded_quantity = tool_usage_stats.demanded_quantity + EXCLUDED.demanded_quantity,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void addDemand(@Param("toolId") Long toolId, @Param("quantity") long quantity);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO tool_usage_stats (tool_id, demanded_quantity, broken_quantity, updated_at)
+            VALUES (:toolId, 0, :quantity, now())
+            ON CONFLICT (tool_id) DO UPDATE
+            SET broken_quantity = tool_usage_stats.broken_quantity + EXCLUDED.broken_quantity,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void addBroken(@Param("toolId") Long toolId, @Param("quantity") long quantity);
+
+    //Waits for transactions that already incremented a row and holds back new increments until the caller
+    //commits, so a rebuild's snapshot contains every increment it overwrites
+    @Modifying
+    @Query(value = "LOCK TABLE tool_usage_stats IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    //Full recompute from the source tables, used to backfill and to correct any drift.
+    //Must run after lockForRebuild in the same transaction, otherwise concurrent increments are lost
+    @Modifying
+    @Query(value = """
+            INSERT INTO tool_usage_stats (tool_id, demanded_quantity, broken_quantity, updated_at)
+            SELECT t.id, COALESCE(d.quantity, 0), COALESCE(b.quantity, 0), now()
+            FROM tools t
+            LEFT JOIN (SELECT tool_id, SUM(req_quantity) AS quantity
+                       FROM tool_request_items GROUP BY tool_id) d ON d.tool_id = t.id
+            LEFT JOIN (SELECT tool_id, SUM(COALESCE(broken_quantity, 0)) AS quantity
+                       FROM tool_inventory GROUP BY tool_id) b ON b.tool_id = t.id
+            ON CONFLICT (tool_id) DO UPDATE
+            SET demanded_quantity = EXCLUDED.demanded_quantity,
+                broken_quantity = EXCLUDED.broken_quantity,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int rebuild();
+
+    @Query("""
+    SELECT new com.coditas.tool.management.system.dto.tool.TopToolReportDTO(t.name, s.demandedQuantity)
+    FROM ToolUsageStat s
+    JOIN Tool t ON t.id = s.toolId
+    WHERE s.demandedQuantity > 0
+    ORDER BY s.demandedQuantity DESC
+    """)
+    List<TopToolReportDTO> findTopDemandedTools(Limit limit); //report
+
+    @Query("""
+    SELECT new com.coditas.tool.management.system.dto.tool.TopToolReportDTO(t.name, s.brokenQuantity)
+    FROM ToolUsageStat s
+    JOIN Tool t ON t.id = s.toolId
+    WHERE s.brokenQuantity > 0
+    ORDER BY s.brokenQuantity DESC
+    """)
+    List<TopToolReportDTO> findTopBrokenTools(Limit limit); //report
+}
@@ -0,0 +1,9 @@
+package com.coditas.tool.management.system.repository;
+
+import com.coditas.tool.management.system.entity.UserHierarchyView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+public interface UserHierarchyViewRepository extends JpaRepository<UserHierarchyView, String>,
+        JpaSpecificationExecutor<UserHierarchyView> {
+}
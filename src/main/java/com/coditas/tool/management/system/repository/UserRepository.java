@@ -1,6 +1,12 @@
 package com.coditas.tool.management.system.repository;
 
+import com.coditas.tool.management.system.dto.user.PremiseTopologyView;
+import com.coditas.tool.management.system.dto.user.UserContextView;
+import com.coditas.tool.management.system.dto.user.UserListDTO;
+import com.coditas.tool.management.system.dto.user.WrkMngrListDTO;
 import com.coditas.tool.management.system.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -30,4 +36,147 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.role = :role AND u.active = true")
     List<User> findByRoleName(@Param("role") String role);
 
+    @Query(value = """
+            SELECT u.id AS "userId", u.name AS "name", u.email AS "email", u.active AS "active"
+            FROM users u
+            WHERE u.email = :email
+            """, nativeQuery = true)
+    Optional<UserContextView> findUserContextByEmail(@Param("email") String email);
+
+    //Every user tied to a premise with its workstation/workplace/tool crib/facility ids, for the topology index
+    @Query(value = """
+            SELECT u.id AS "userId",
+                   ws.id AS "workstationId", wp.id AS "workplaceId", tc.id AS "toolCribId",
+                   COALESCE(fm.id, wp.facility_id) AS "facilityId"
+            FROM users u
+            LEFT JOIN workstations ws ON ws.worker_id = u.id
+            LEFT JOIN workplaces wpm ON wpm.workplace_manager_id = u.id
+            LEFT JOIN tool_crib_managers tcm ON tcm.tool_crib_manager_id = u.id
+            LEFT JOIN tool_cribs tcmc ON tcmc.id = tcm.tool_crib_id
+            LEFT JOIN facilities fm ON fm.facility_manager_id = u.id
+            LEFT JOIN workplaces wp ON wp.id = COALESCE(ws.workplace_id, wpm.id, tcmc.workplace_id)
+            LEFT JOIN tool_cribs tc ON tc.workplace_id = wp.id
+            WHERE ws.id IS NOT NULL OR wp.id IS NOT NULL OR fm.id IS NOT NULL
+            """, nativeQuery = true)
+    List<PremiseTopologyView> findAllPremiseTopologies();
+
+    //Search flags select which columns the pattern is matched against: name/email are OR-ed, the premise name
+    //is an extra AND on top (as the in-memory filter applied it); all flags false skips searching
+    @Query(value = """
+            SELECT new com.coditas.tool.management.system.dto.user.UserListDTO(
+                   u.id, u.name, u.email, u.createdAt, f.name, f.address)
+            FROM User u JOIN u.roles r
+            LEFT JOIN Facility f ON f.facilityManager = u
+            WHERE r.role = 'ROLE_FACILITYMANAGER' AND u.active = true
+              AND ((:byName = false AND :byEmail = false)
+                   OR (:byName = true AND LOWER(u.name) LIKE :pattern)
+                   OR (:byEmail = true AND LOWER(u.email) LIKE :pattern))
+              AND (:byFacility = false OR LOWER(f.name) LIKE :pattern)
+            ORDER BY u.id
+            """,
+            countQuery = """
+            SELECT COUNT(u) FROM User u JOIN u.roles r
+            LEFT JOIN Facility f ON f.facilityManager = u
+            WHERE r.role = 'ROLE_FACILITYMANAGER' AND u.active = true
+              AND ((:byName = false AND :byEmail = false)
+                   OR (:byName = true AND LOWER(u.name) LIKE :pattern)
+                   OR (:byEmail = true AND LOWER(u.email) LIKE :pattern))
+              AND (:byFacility = false OR LOWER(f.name) LIKE :pattern)
+            """)
+    Page<UserListDTO> findFacilityManagerList(@Param("pattern") String pattern,
+                                              @Param("byName") boolean byName,
+                                              @Param("byEmail") boolean byEmail,
+                                              @Param("byFacility") boolean byFacility,
+                                              Pageable pageable);
+
+    @Query(value = """
+            SELECT new com.coditas.tool.management.system.dto.user.WrkMngrListDTO(
+                   u.id, u.name, u.email, u.createdAt, w.name, wf.name)
+            FROM User u JOIN u.roles r
+            LEFT JOIN Workplace w ON w.workplaceManager = u
+            LEFT JOIN w.facility wf
+            WHERE r.role = 'ROLE_WORKPLACEMANAGER' AND u.active = true
+              AND ((:byName = false AND :byEmail = false)
+                   OR (:byName = true AND LOWER(u.name) LIKE :pattern)
+                   OR (:byEmail = true AND LOWER(u.email) LIKE :pattern))
+              AND (:byWorkplace = false OR LOWER(w.name) LIKE :pattern)
+            ORDER BY u.id
+            """,
+            countQuery = """
+            SELECT COUNT(u) FROM User u JOIN u.roles r
+            LEFT JOIN Workplace w ON w.workplaceManager = u
+            WHERE r.role = 'ROLE_WORKPLACEMANAGER' AND u.active = true
+              AND ((:byName = false AND :byEmail = false)
+                   OR (:byName = true AND LOWER(u.name) LIKE :pattern)
+                   OR (:byEmail = true AND LOWER(u.email) LIKE :pattern))
+              AND (:byWorkplace = false OR LOWER(w.name) LIKE :pattern)
+            """)
+    Page<WrkMngrListDTO> findWorkplaceManagerList(@Param("pattern") String pattern,
+                                                  @Param("byName") boolean byName,
+                                                  @Param("byEmail") boolean byEmail,
+                                                  @Param("byWorkplace") boolean byWorkplace,
+                                                  Pageable pageable);
+
+    //Available assignees: active users of a role that are not linked to any premise yet
+    @Query("""
+            SELECT u.email FROM User u JOIN u.roles r
+            WHERE r.role = 'ROLE_FACILITYMANAGER' AND u.active = true
+              AND NOT EXISTS (SELECT 1 FROM Facility f WHERE f.facilityManager = u)
+              AND (:filter = false
+                   OR (:byName = true AND LOWER(u.name) LIKE :pattern)
+                   OR (:byEmail = true AND LOWER(u.email) LIKE :pattern))
+            """)
+    List<String> findAvailableFacilityManagerEmails(@Param("filter") boolean filter,
+                                                    @Param("pattern") String pattern,
+                                                    @Param("byName") boolean byName,
+                                                    @Param("byEmail") boolean byEmail);
+
+    @Query("""
+            SELECT u.email FROM User u JOIN u.roles r
+            WHERE r.role = 'ROLE_WORKPLACEMANAGER' AND u.active = true
+              AND NOT EXISTS (SELECT 1 FROM Workplace w WHERE w.workplaceManager = u)
+              AND (:filter = false
+                   OR (:byName = true AND LOWER(u.name) LIKE :pattern)
+                   OR (:byEmail = true AND LOWER(u.email) LIKE :pattern))
+            """)
+    List<String> findAvailableWorkplaceManagerEmails(@Param("filter") boolean filter,
+                                                     @Param("pattern") String pattern,
+                                                     @Param("byName") boolean byName,
+                                                     @Param("byEmail") boolean byEmail);
+
+    @Query("""
+            SELECT u.email FROM User u JOIN u.roles r
+            WHERE r.role = 'ROLE_WORKER' AND u.active = true
+              AND NOT EXISTS (SELECT 1 FROM Workstation ws WHERE ws.worker = u)
+              AND (:filter = false
+                   OR (:byName = true AND LOWER(u.name) LIKE :pattern)
+                   OR (:byEmail = true AND LOWER(u.email) LIKE :pattern))
+            """)
+    List<String> findAvailableWorkerEmails(@Param("filter") boolean filter,
+                                           @Param("pattern") String pattern,
+                                           @Param("byName") boolean byName,
+                                           @Param("byEmail") boolean byEmail);
+
+    //Active managers of one tool crib, read straight from the tool_crib_managers join table
+    @Query(value = """
+            SELECT new com.coditas.tool.management.system.dto.user.UserListDTO(
+                   u.id, u.name, u.email, u.createdAt, CAST(NULL AS String), CAST(NULL AS String))
+            FROM ToolCrib tc JOIN tc.toolCribManagers u
+            WHERE tc.id = :toolCribId AND u.active = true
+              AND (:byName = false OR LOWER(u.name) LIKE :pattern)
+              AND (:byEmail = false OR LOWER(u.email) LIKE :pattern)
+            ORDER BY u.id
+            """,
+            countQuery = """
+            SELECT COUNT(u) FROM ToolCrib tc JOIN tc.toolCribManagers u
+            WHERE tc.id = :toolCribId AND u.active = true
+              AND (:byName = false OR LOWER(u.name) LIKE :pattern)
+              AND (:byEmail = false OR LOWER(u.email) LIKE :pattern)
+            """)
+    Page<UserListDTO> findToolCribManagerList(@Param("toolCribId") Long toolCribId,
+                                              @Param("pattern") String pattern,
+                                              @Param("byName") boolean byName,
+                                              @Param("byEmail") boolean byEmail,
+                                              Pageable pageable);
+
 }
\ No newline at end of file
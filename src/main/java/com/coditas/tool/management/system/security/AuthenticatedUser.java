@@ -0,0 +1,61 @@
+package com.coditas.tool.management.system.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+//Principal resolved once per request by the JWT filter, so services don't have to look the user up again
+@Getter
+@Builder
+@AllArgsConstructor
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final boolean active;
+    private final List<String> roles;
+
+    //Premises tied to the user, null when the role has none
+    private final Long workstationId;
+    private final Long workplaceId;
+    private final Long toolCribId;
+    private final Long facilityId;
+
+    public static AuthenticatedUser current() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser;
+        }
+        throw new IllegalStateException("No authenticated user in the current request");
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
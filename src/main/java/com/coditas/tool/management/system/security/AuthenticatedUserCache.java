@@ -0,0 +1,95 @@
+package com.coditas.tool.management.system.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+//In-memory principal cache and token denylist used by the stateless JWT mode.
+//Resolved principals are reused until they expire or the user is revoked, so a verified
+//token no longer costs a DB read per request.
+@Component
+public class AuthenticatedUserCache {
+
+    @Value("${jwt.auth.principal-cache-ttl:60000}")
+    private long principalTtlMillis;
+
+    @Value("${jwt.auth.principal-cache-size:10000}")
+    private int maxPrincipals;
+
+    @Value("${jwt.token.validity}")
+    private long jwtTokenValidity;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    //Bumped by invalidateAll; entries built under an older generation are treated as missing
+    private final AtomicLong generation = new AtomicLong();
+
+    //email -> instant before which every issued token is rejected
+    private final Map<String, Instant> revocations = new ConcurrentHashMap<>();
+
+    public Optional<AuthenticatedUser> get(String email, Supplier<Optional<AuthenticatedUser>> loader) {
+        //Captured before loading, so a principal built while an invalidation runs is stored already stale
+        long currentGeneration = generation.get();
+        CachedPrincipal cached = principals.get(email);
+        if (cached != null && cached.generation() == currentGeneration && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached.user());
+        }
+
+        Optional<AuthenticatedUser> loaded = loader.get();
+        loaded.ifPresent(user -> {
+            if (principals.size() >= maxPrincipals) {
+                //Bounded: dropping everything is cheap, entries are rebuilt on the next request
+                principals.clear();
+            }
+            principals.put(email, new CachedPrincipal(user, currentGeneration,
+                    Instant.now().plusMillis(principalTtlMillis)));
+        });
+        return loaded;
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            principals.remove(email);
+        }
+    }
+
+    //Premise changes can affect any principal; entries are not cleared but rebuilt lazily on their next request
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    //Rejects all tokens issued to this user so far (deactivation, deletion, credential changes)
+    public void revoke(String email) {
+        if (email == null) {
+            return;
+        }
+        principals.remove(email);
+        revocations.put(email, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        pruneRevocations();
+    }
+
+    public boolean isRevoked(String email, Date issuedAt) {
+        Instant revokedAt = revocations.get(email);
+        if (revokedAt == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.toInstant().isBefore(revokedAt);
+    }
+
+    //A revocation is useless once every token issued before it has expired anyway
+    private void pruneRevocations() {
+        Instant cutoff = Instant.now().minusMillis(jwtTokenValidity);
+        revocations.values().removeIf(revokedAt -> revokedAt.isBefore(cutoff));
+    }
+
+    private record CachedPrincipal(AuthenticatedUser user, long generation, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.coditas.tool.management.system.security;
+
+import com.coditas.tool.management.system.dto.user.PremiseTopologyView;
+import com.coditas.tool.management.system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class AuthenticatedUserResolver {
+
+    private final UserRepository userRepository;
+    private final PremiseTopologyIndex premiseTopologyIndex;
+
+    @Autowired
+    public AuthenticatedUserResolver(UserRepository userRepository, PremiseTopologyIndex premiseTopologyIndex) {
+        this.userRepository = userRepository;
+        this.premiseTopologyIndex = premiseTopologyIndex;
+    }
+
+    //One indexed lookup for the user row; workstation/workplace/tool crib/facility ids come from the topology index.
+    //Roles come from the already verified token.
+    public Optional<AuthenticatedUser> resolve(String email, List<String> roles) {
+        return userRepository.findUserContextByEmail(email)
+                .map(view -> {
+                    Optional<PremiseTopologyView> premises = premiseTopologyIndex.lookup(view.getUserId());
+                    return AuthenticatedUser.builder()
+                            .id(view.getUserId())
+                            .name(view.getName())
+                            .email(view.getEmail())
+                            .active(!Boolean.FALSE.equals(view.getActive()))
+                            .roles(roles)
+                            .workstationId(premises.map(PremiseTopologyView::getWorkstationId).orElse(null))
+                            .workplaceId(premises.map(PremiseTopologyView::getWorkplaceId).orElse(null))
+                            .toolCribId(premises.map(PremiseTopologyView::getToolCribId).orElse(null))
+                            .facilityId(premises.map(PremiseTopologyView::getFacilityId).orElse(null))
+                            .build();
+                });
+    }
+}
@@ -1,5 +1,6 @@
 package com.coditas.tool.management.system.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,11 +8,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,12 +26,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private Logger logger = LoggerFactory.getLogger(OncePerRequestFilter.class);
     private JwtHelper jwtHelper;
-    private UserDetailsService userDetailsService;
+    private AuthenticatedUserResolver authenticatedUserResolver;
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    //Stateless mode: token verified once, principal served from memory instead of the DB
+    @Value("${jwt.auth.stateless:true}")
+    private boolean stateless;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtHelper jwtHelper, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtHelper jwtHelper, AuthenticatedUserResolver authenticatedUserResolver,
+                                   AuthenticatedUserCache authenticatedUserCache) {
         this.jwtHelper = jwtHelper;
-        this.userDetailsService = userDetailsService;
+        this.authenticatedUserResolver = authenticatedUserResolver;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @Override
@@ -55,29 +64,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (requestHeader != null && requestHeader.startsWith("Bearer")) {
                 //Comes into the condition iff the request header is a bearer token and a header exists
                 token = requestHeader.substring(7);
-                if(jwtHelper.validateToken(token)) {
-                    //Comes into this condition only if the token is validated
-                    username = jwtHelper.getUsernameFromToken(token);
+                //Signature is verified a single time, every claim below is read from the parsed body
+                Claims claims = jwtHelper.parseToken(token);
+                username = claims.getSubject();
+
+                if (!authenticatedUserCache.isRevoked(username, claims.getIssuedAt())) {
                     // get the Roles from the token
-                    List<String> roles = jwtHelper.getRolesFromToken(token);
+                    List<String> roles = jwtHelper.getRolesFromClaims(claims);
 
                     List<SimpleGrantedAuthority> authorities = roles.stream()
                             .map(SimpleGrantedAuthority::new)
                             .toList();
 
-
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    //Fetch details of the user such as roles from the filter chain or the db
+                    String email = username;
+                    //Resolve the user and its premises once, services read them from the principal
+                    AuthenticatedUser authenticatedUser = (stateless
+                            ? authenticatedUserCache.get(email, () -> authenticatedUserResolver.resolve(email, roles))
+                            : authenticatedUserResolver.resolve(email, roles))
+                            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+                    if (!authenticatedUser.isEnabled()) {
+                        //Deactivated users keep a valid signature until expiry, so the flag is checked on every request
+                        throw new DisabledException("User is deactivated: " + email);
+                    }
                     UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+                            new UsernamePasswordAuthenticationToken(authenticatedUser, null, authorities);
 
                     //Authentication is set by sending the username and authorities using a UsernamePasswordAuthenticationToken
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request)); // This is used in case of Ip address and session id logging can be avoided
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     //Sets the current threads context authentication to the user whose token is already validated
                 }else{
-                    logger.warn("Validation failed : JWT token is invalid");
-                    //Control comes here if the validation fails
+                    logger.warn("Validation failed : JWT token has been revoked");
+                    //Control comes here if the user was deactivated or changed after the token was issued
                 }
             } else {
                 //Control comes here if the authorization header is missing ot bearer is missing
@@ -3,9 +3,11 @@ package com.coditas.tool.management.system.security;
 import com.coditas.tool.management.system.exception.UnauthorizedException;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Component;
@@ -23,7 +25,18 @@ public class JwtHelper {
     @Value("${jwt.token.secret}")
     public String secret;
 
+    @Value("${jwt.token.cache.max-size:10000}")
+    private int tokenCacheMaxSize;
+
+    @Value("${jwt.token.cache.ttl:300000}")
+    private long tokenCacheTtl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private SecretKey key;
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokenCache;
     private Logger logger = LoggerFactory.getLogger(JwtHelper.class);
 
     @PostConstruct
@@ -32,6 +45,9 @@ public class JwtHelper {
         // This method is used to generate a key from the provided secret. The given secret is checked for length
         // and then converted into bytes suitable for the crypto algorithms. The key contains the same info as the secret
         // but in binary format
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        // Parser is immutable and thread safe, so it is built once and reused for every token
+        this.verifiedTokenCache = new VerifiedTokenCache(tokenCacheMaxSize, tokenCacheTtl, meterRegistry);
     }
 
     //Generate JWT Token
@@ -53,23 +69,19 @@ public class JwtHelper {
     }
 
     public String getUsernameFromToken(String token){
-        return Jwts.parserBuilder()  // returns JWT parser
-                .setSigningKey(key).build() //Tells parser that we used this key and to use that for verification
-                .parseClaimsJws(token)   //After build, parses the passed token
-                .getBody()   // returns all the claims
+        return parseToken(token)   //Parses and verifies the passed token (or reuses a cached verification)
                 .getSubject(); //returns the username
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parseToken(token);
     }
 
     public List<String> getRolesFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
+        return getRolesFromClaims(getAllClaimsFromToken(token));
+    }
+
+    public List<String> getRolesFromClaims(Claims claims) {
         Object roles = claims.get("roles");
         if (roles instanceof List<?> roleList) {
             return roleList.stream()
@@ -81,15 +93,29 @@ public class JwtHelper {
     }
 
     public Boolean validateToken(String token){
+        parseToken(token);
+        return true;
+    }
+
+    //Verifies the token once and returns its claims, so callers don't re-verify the signature per claim
+    public Claims parseToken(String token){
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT claims string is empty: token is missing");
+        }
+
+        String cacheKey = VerifiedTokenCache.keyOf(token);
+        Claims cached = verifiedTokenCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
         try{
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            // parserBuilder - starts the jwt parser
-            // setSigningKey - specifies the key used to sign the jwt
-            // build - builds the parser
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokenCache.put(cacheKey, claims);
+            return claims;
             // parseClaimsJws - Validation step, token is split into header and payload,
             // decodes them using base 64 encoder, recomputes signature using header+payload
-            // compares the generated token to the existing token and after all this succeeds true is thrown
-            return true;
+            // compares the generated token to the existing token and after all this succeeds the claims are returned
         }catch (SecurityException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
             throw new UnauthorizedException("Invalid JWT signature: " + e.getMessage());
@@ -106,6 +132,5 @@ public class JwtHelper {
             logger.error("JWT claims string is empty: {}", e.getMessage());
             throw new IllegalArgumentException("JWT claims string is empty: " + e.getMessage());
         }
-        //return false;
     }
 }
@@ -0,0 +1,98 @@
+package com.coditas.tool.management.system.security;
+
+import com.coditas.tool.management.system.dto.user.PremiseTopologyView;
+import com.coditas.tool.management.system.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//In-memory map of user id -> workstation/workplace/tool crib/facility ids.
+//The whole snapshot is loaded with one query and dropped by any premise write, since those are rare.
+@Component
+public class PremiseTopologyIndex {
+
+    private final UserRepository userRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final Timer lookupTimer;
+    private final Timer rebuildTimer;
+
+    private volatile Map<Long, PremiseTopologyView> snapshot;
+    private long version;
+    //Held for the whole rebuild, so concurrent misses share one query instead of each loading the snapshot
+    private final Object rebuildLock = new Object();
+
+    @Autowired
+    public PremiseTopologyIndex(UserRepository userRepository, AuthenticatedUserCache authenticatedUserCache,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.lookupTimer = meterRegistry.timer("premise.topology.lookup");
+        this.rebuildTimer = meterRegistry.timer("premise.topology.rebuild");
+        meterRegistry.gauge("premise.topology.size", this, index -> {
+            Map<Long, PremiseTopologyView> current = index.snapshot;
+            return current == null ? 0 : current.size();
+        });
+    }
+
+    //Empty for users without premises (owners, unassigned managers and workers)
+    public Optional<PremiseTopologyView> lookup(Long userId) {
+        return lookupTimer.record(() -> Optional.ofNullable(currentSnapshot().get(userId)));
+    }
+
+    //Called by every write that moves users between premises; runs after commit when inside a transaction
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop();
+                }
+            });
+        } else {
+            drop();
+        }
+    }
+
+    private synchronized void drop() {
+        version++;
+        snapshot = null;
+        //Cached principals carry premise ids as well
+        authenticatedUserCache.invalidateAll();
+    }
+
+    private Map<Long, PremiseTopologyView> currentSnapshot() {
+        Map<Long, PremiseTopologyView> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            //Threads queued behind a rebuild reuse its result
+            current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            long loadVersion;
+            synchronized (this) {
+                loadVersion = version;
+            }
+            Map<Long, PremiseTopologyView> loaded = rebuildTimer.record(() -> userRepository.findAllPremiseTopologies()
+                    .stream()
+                    .collect(Collectors.toMap(PremiseTopologyView::getUserId, Function.identity(), (first, second) -> first)));
+            synchronized (this) {
+                //Only publish if no premise write happened while loading
+                if (loadVersion == version) {
+                    snapshot = loaded;
+                }
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.coditas.tool.management.system.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Bounded LRU of already verified tokens. The key is a SHA-256 of the whole token (signature included),
+//so a hit means these exact bytes were verified before and the HMAC check + JSON parsing can be skipped.
+public class VerifiedTokenCache {
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(int maxSize, long ttlMillis, MeterRegistry meterRegistry) {
+        this.ttlMillis = ttlMillis;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+        this.hits = Counter.builder("jwt.token.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.token.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        meterRegistry.gauge("jwt.token.cache.size", entries, Map::size);
+    }
+
+    public Claims get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt().isAfter(Instant.now())) {
+            hits.increment();
+            return entry.claims();
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses.increment();
+        return null;
+    }
+
+    //Kept until the token's own exp or the configured ttl, whichever comes first
+    public void put(String key, Claims claims) {
+        Instant expiresAt = Instant.now().plusMillis(ttlMillis);
+        if (claims.getExpiration() != null && claims.getExpiration().toInstant().isBefore(expiresAt)) {
+            expiresAt = claims.getExpiration().toInstant();
+        }
+        entries.put(key, new Entry(claims, expiresAt));
+    }
+
+    public static String keyOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, Instant expiresAt) {
+    }
+}
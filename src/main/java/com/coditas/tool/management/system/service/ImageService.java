@@ -0,0 +1,11 @@
+package com.coditas.tool.management.system.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+
+public interface ImageService {
+
+    //Returns "Link" (normalized image) and "ThumbnailLink"; identical images share the same objects
+    Map<String,String> storeImage(MultipartFile image, String prefix);
+}
@@ -0,0 +1,14 @@
+package com.coditas.tool.management.system.service;
+
+import org.apache.coyote.BadRequestException;
+
+public interface InventoryReservationService {
+
+    void reserve(Long toolCribId, Long toolId, long quantity) throws BadRequestException;
+
+    void release(Long toolCribId, Long toolId, long quantity);
+
+    void commit(Long toolCribId, Long toolId, long quantity);
+
+    void restock(Long toolCribId, Long toolId, long quantity);
+}
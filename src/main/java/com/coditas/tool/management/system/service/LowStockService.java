@@ -0,0 +1,5 @@
+package com.coditas.tool.management.system.service;
+
+public interface LowStockService {
+    void evaluate(Long toolCribId, Long toolId);
+}
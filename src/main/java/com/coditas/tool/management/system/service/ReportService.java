@@ -2,6 +2,8 @@ package com.coditas.tool.management.system.service;
 
 import com.coditas.tool.management.system.dto.sharedResponse.SuccessResponse;
 import com.coditas.tool.management.system.dto.tool.TopToolReportDTO;
+
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ReportService {
@@ -10,4 +12,7 @@ public interface ReportService {
     SuccessResponse getMostBrokenTools();
 
     SuccessResponse getTopPricedTools();
+
+    SuccessResponse getUsageReport(String groupBy, String bucket, LocalDate from, LocalDate to,
+                                   Long facilityId, Long workplaceId, Long toolCribId, Long toolId);
 }
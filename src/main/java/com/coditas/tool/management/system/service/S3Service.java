@@ -1,10 +1,16 @@
 package com.coditas.tool.management.system.service;
 
-import org.springframework.web.multipart.MultipartFile;
-
-import java.util.Map;
+import java.io.InputStream;
 
 public interface S3Service {
 
-    public Map<String,String> uploadPhoto(MultipartFile file, String key);
-}
\ No newline at end of file
+    //For content-addressed objects, which never change once written. The stream is sent as it is read,
+    //large uploads are split into multipart parts without holding the whole object in memory
+    void upload(InputStream content, long contentLength, String key, String contentType);
+
+    void uploadBytes(byte[] content, String key, String contentType);
+
+    boolean exists(String key);
+
+    String getLink(String key);
+}
@@ -0,0 +1,18 @@
+package com.coditas.tool.management.system.service;
+
+import com.coditas.tool.management.system.dto.tool.ToolCatalogEntry;
+
+import java.util.Optional;
+
+public interface ToolCatalogService {
+
+    Optional<ToolCatalogEntry> findById(Long id);
+
+    Optional<ToolCatalogEntry> findByName(String name);
+
+    //Throws ResourceNotFoundException when the tool does not exist
+    ToolCatalogEntry getById(Long id);
+
+    //Called by every tool write
+    void evict(Long id);
+}
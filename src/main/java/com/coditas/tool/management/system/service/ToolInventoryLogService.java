@@ -1,11 +1,21 @@
 package com.coditas.tool.management.system.service;
 
+import com.coditas.tool.management.system.constant.ExportFormat;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
 import com.coditas.tool.management.system.dto.tool.ToolInventoryLogDTO;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 
 public interface ToolInventoryLogService {
     Page<ToolInventoryLogDTO> getLogs(int page, int size,
                                       LocalDateTime minDateTime, LocalDateTime maxDateTime);
+
+    CursorPage<ToolInventoryLogDTO> getLogs(String cursor, int size,
+                                            LocalDateTime minDateTime, LocalDateTime maxDateTime);
+
+    void exportLogs(ExportFormat format, LocalDateTime minDateTime, LocalDateTime maxDateTime,
+                    OutputStream out) throws IOException;
 }
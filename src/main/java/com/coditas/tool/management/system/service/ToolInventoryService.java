@@ -1,6 +1,7 @@
 package com.coditas.tool.management.system.service;
 
 import com.coditas.tool.management.system.dto.tool.AssignToolRequestDTO;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
 import com.coditas.tool.management.system.dto.sharedResponse.SuccessResponse;
 import com.coditas.tool.management.system.dto.tool.ToolInventoryDTO;
 import org.springframework.data.domain.Page;
@@ -10,4 +11,7 @@ public interface ToolInventoryService {
 
     Page<ToolInventoryDTO> getToolInventoryForToolCrib(Long toolCribId, int page,
                                                        int size, boolean filterLowStock);
+
+    CursorPage<ToolInventoryDTO> getToolInventoryForToolCrib(Long toolCribId, String cursor,
+                                                             int size, boolean filterLowStock);
 }
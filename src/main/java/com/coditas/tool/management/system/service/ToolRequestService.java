@@ -1,12 +1,17 @@
 package com.coditas.tool.management.system.service;
 
+import com.coditas.tool.management.system.constant.ExportFormat;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
 import com.coditas.tool.management.system.dto.sharedResponse.SuccessResponse;
 import com.coditas.tool.management.system.dto.tool.ToolRequestCreateDTO;
 import com.coditas.tool.management.system.dto.tool.ToolRequestItemDTO;
 import com.coditas.tool.management.system.dto.tool.ToolReturnRequestDTO;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
 import org.apache.coyote.BadRequestException;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,10 +25,13 @@ public interface ToolRequestService {
     public SuccessResponse decideSpecialRequest(Long itemId, boolean approve)
             throws BadRequestException;
 
-    public SuccessResponse createToolRequest(String email, ToolRequestCreateDTO requestDTO);
+    public SuccessResponse createToolRequest(AuthenticatedUser currentUser, ToolRequestCreateDTO requestDTO);
 
     Page<ToolRequestItemDTO> getToolRequestsByWorker(String toolName, String approvalStatus, int page, int size);
 
+    CursorPage<ToolRequestItemDTO> getToolRequestsByWorker(String toolName, String approvalStatus,
+                                                           String cursor, int size);
+
     SuccessResponse decideNormalToolRequest(Long itemId, boolean approve) throws BadRequestException;
 
     Page<ToolRequestItemDTO> getAllToolRequestsForCribManager(
@@ -32,6 +40,19 @@ public interface ToolRequestService {
             List<String> fields,
             LocalDateTime startDateTime, LocalDateTime endDateTime);
 
+    CursorPage<ToolRequestItemDTO> getAllToolRequestsForCribManager(
+            String cursor, int size,
+            String search,
+            List<String> fields,
+            LocalDateTime startDateTime, LocalDateTime endDateTime);
+
+    void exportToolRequestsForCribManager(
+            ExportFormat format,
+            String search,
+            List<String> fields,
+            LocalDateTime startDateTime, LocalDateTime endDateTime,
+            OutputStream out) throws IOException;
+
     SuccessResponse returnTool(ToolReturnRequestDTO requestDTO) throws BadRequestException;
 
     SuccessResponse getUnreturnedToolWorkers();
@@ -0,0 +1,14 @@
+package com.coditas.tool.management.system.service;
+
+import com.coditas.tool.management.system.dto.tool.ToolSuggestionDTO;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
+
+import java.util.List;
+
+public interface ToolSuggestService {
+    List<ToolSuggestionDTO> suggest(AuthenticatedUser currentUser, String prefix, int limit);
+
+    void addToCrib(Long toolCribId, Long toolId);
+
+    void refreshTool(Long toolId);
+}
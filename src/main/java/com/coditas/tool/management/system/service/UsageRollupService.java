@@ -0,0 +1,9 @@
+package com.coditas.tool.management.system.service;
+
+public interface UsageRollupService {
+    void recordRequested(Long toolCribId, Long toolId, long items, long quantity);
+
+    void recordApproved(Long toolCribId, Long toolId, long quantity);
+
+    void recordReturned(Long toolCribId, Long toolId, long returned, long broken, long fine);
+}
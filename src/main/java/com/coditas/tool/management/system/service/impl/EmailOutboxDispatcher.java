@@ -0,0 +1,199 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.config.AsyncExecutorConfig;
+import com.coditas.tool.management.system.constant.EmailStatus;
+import com.coditas.tool.management.system.entity.EmailOutbox;
+import com.coditas.tool.management.system.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Drains the email outbox in batches; one send call per batch reuses a single SMTP connection.
+//Rows are claimed (SENDING plus a lease) in a short transaction and sent after it commits, so no row lock is
+//held during SMTP traffic; a claim whose send never finished is picked up again once its lease runs out.
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final Executor mailExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration claimTimeout;
+    private final Duration pendingGaugeTtl;
+    private final AtomicLong pending = new AtomicLong();
+    private volatile long pendingReadAt = System.nanoTime() - Long.MAX_VALUE / 2;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    @Autowired
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, JavaMailSender mailSender,
+                                 @Qualifier(AsyncExecutorConfig.MAIL_EXECUTOR) Executor mailExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.max-attempts:5}") int maxAttempts,
+                                 @Value("${email.outbox.retry-backoff:30s}") Duration retryBackoff,
+                                 @Value("${email.outbox.claim-timeout:5m}") Duration claimTimeout,
+                                 @Value("${email.outbox.pending-gauge-ttl:30s}") Duration pendingGaugeTtl) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.mailExecutor = mailExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.claimTimeout = claimTimeout;
+        this.pendingGaugeTtl = pendingGaugeTtl;
+        this.sentCounter = meterRegistry.counter("email.outbox.dispatched", "result", "sent");
+        this.retryCounter = meterRegistry.counter("email.outbox.dispatched", "result", "retry");
+        this.failedCounter = meterRegistry.counter("email.outbox.dispatched", "result", "failed");
+        this.batchTimer = meterRegistry.timer("email.outbox.batch");
+        Gauge.builder("email.outbox.pending", this, EmailOutboxDispatcher::pendingCount)
+                .register(meterRegistry);
+    }
+
+    //The tick only hands the batch to the mail executor, so a slow SMTP server never holds up the scheduler
+    //thread; ticks that find the previous batch still in flight are skipped instead of piling up
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:5000}")
+    public void dispatch() {
+        if (!inFlight.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            mailExecutor.execute(() -> {
+                try {
+                    dispatchBatch();
+                } finally {
+                    inFlight.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.set(false);
+            throw e;
+        }
+    }
+
+    private void dispatchBatch() {
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) return;
+
+        Map<SimpleMailMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages.put(message, email);
+        }
+
+        Map<Object, Exception> failures = batchTimer.record(() -> send(messages.keySet()));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> entry : messages.entrySet()) {
+            EmailOutbox email = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                email.setStatus(EmailStatus.SENT);
+                email.setSentAt(now);
+                sentCounter.increment();
+            } else {
+                markFailedAttempt(email, failure, now);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = emailOutboxRepository.lockDueBatch(now, batchSize);
+        LocalDateTime leaseUntil = now.plus(claimTimeout);
+        for (EmailOutbox email : batch) {
+            email.setStatus(EmailStatus.SENDING);
+            email.setNextAttemptAt(leaseUntil);
+        }
+        return emailOutboxRepository.saveAll(batch);
+    }
+
+    //Scrapes read a cached count, the table is queried at most once per pending-gauge-ttl
+    private double pendingCount() {
+        long now = System.nanoTime();
+        if (now - pendingReadAt > pendingGaugeTtl.toNanos()) {
+            pendingReadAt = now;
+            pending.set(emailOutboxRepository.countByStatus(EmailStatus.PENDING));
+        }
+        return pending.get();
+    }
+
+    //Returns the messages that failed; an empty map means the whole batch went out
+    private Map<Object, Exception> send(Set<SimpleMailMessage> messages) {
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+            return Collections.emptyMap();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return failAll(messages, e);
+        } catch (MailException e) {
+            //Connection or authentication problem, nothing was sent
+            return failAll(messages, e);
+        }
+    }
+
+    private Map<Object, Exception> failAll(Set<SimpleMailMessage> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private void markFailedAttempt(EmailOutbox email, Exception failure, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        String error = String.valueOf(failure.getMessage());
+        email.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailStatus.FAILED);
+            failedCounter.increment();
+            log.warn("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(), attempts);
+            return;
+        }
+        //Exponential backoff: base, 2x base, 4x base...
+        email.setStatus(EmailStatus.PENDING);
+        email.setNextAttemptAt(now.plus(retryBackoff.multipliedBy(1L << (attempts - 1))));
+        retryCounter.increment();
+    }
+}
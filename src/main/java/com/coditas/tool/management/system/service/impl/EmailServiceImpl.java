@@ -1,26 +1,34 @@
 package com.coditas.tool.management.system.service.impl;
 
+import com.coditas.tool.management.system.constant.EmailStatus;
+import com.coditas.tool.management.system.entity.EmailOutbox;
+import com.coditas.tool.management.system.repository.EmailOutboxRepository;
 import com.coditas.tool.management.system.service.EmailService;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-@Async
+import java.time.LocalDateTime;
+
+//Mails are written to the outbox in the caller's transaction and sent later by EmailOutboxDispatcher
 @Service
 public class EmailServiceImpl implements EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository emailOutboxRepository;
 
     @Override
+    @Transactional
     public void sendEmail(String to, String subject, String body){
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
+        EmailOutbox email = EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .status(EmailStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
 
-        mailSender.send(message);
+        emailOutboxRepository.save(email);
     }
 }
@@ -10,6 +10,7 @@ import com.coditas.tool.management.system.entity.User;
 import com.coditas.tool.management.system.exception.PremiseNotFoundException;
 import com.coditas.tool.management.system.repository.FacilityRepository;
 import com.coditas.tool.management.system.repository.UserRepository;
+import com.coditas.tool.management.system.security.PremiseTopologyIndex;
 import com.coditas.tool.management.system.service.FacilityService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,12 +32,14 @@ public class FacilityServiceImpl implements FacilityService {
 
     private final FacilityRepository facilityRepository;
     private final UserRepository userRepository;
+    private final PremiseTopologyIndex premiseTopologyIndex;
 
     @Autowired
     public FacilityServiceImpl(FacilityRepository facilityRepository,
-                               UserRepository userRepository) {
+                               UserRepository userRepository, PremiseTopologyIndex premiseTopologyIndex) {
         this.facilityRepository = facilityRepository;
         this.userRepository = userRepository;
+        this.premiseTopologyIndex = premiseTopologyIndex;
     }
 
     //Method to add Facility
@@ -56,6 +59,7 @@ public class FacilityServiceImpl implements FacilityService {
             facility.setFacilityManager(userRepository.findByEmail(dto.getFacilityManagerEmail()).get());
         }
         facilityRepository.save(facility);
+        premiseTopologyIndex.invalidate();
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Facility created successfully")
@@ -73,6 +77,7 @@ public class FacilityServiceImpl implements FacilityService {
             facility.setFacilityManager(userRepository.findByEmail(dto.getFacilityManagerEmail()).get());
         }
         facilityRepository.save(facility);
+        premiseTopologyIndex.invalidate();
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Facility details has been updated successfully.")
@@ -88,6 +93,7 @@ public class FacilityServiceImpl implements FacilityService {
 
         facility.setActive(false);
         facilityRepository.save(facility);
+        premiseTopologyIndex.invalidate();
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Facility deleted successfully.")
@@ -0,0 +1,152 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.service.ImageService;
+import com.coditas.tool.management.system.service.S3Service;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+
+@Service
+public class ImageServiceImpl implements ImageService {
+
+    private static final String CONTENT_TYPE = "image/jpeg";
+
+    private final S3Service s3Service;
+
+    @Value("${image.max-dimension:1600}")
+    private int maxDimension;
+
+    @Value("${image.thumbnail-size:256}")
+    private int thumbnailSize;
+
+    @Value("${image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${image.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Autowired
+    public ImageServiceImpl(S3Service s3Service) {
+        this.s3Service = s3Service;
+    }
+
+    @Override
+    public Map<String,String> storeImage(MultipartFile image, String prefix) {
+        //Content-addressed keys: the same upload always maps to the same objects. The upload is streamed twice
+        //(hash, then decode) instead of being copied onto the heap
+        String base = prefix + "/" + sha256(image);
+        String imageKey = base + "/image.jpg";
+        String thumbnailKey = base + "/thumb-" + thumbnailSize + ".jpg";
+
+        //The thumbnail is written last, so its presence means both objects are stored
+        if (!s3Service.exists(thumbnailKey)) {
+            BufferedImage decoded = decode(image);
+            s3Service.uploadBytes(encode(fit(decoded, maxDimension)), imageKey, CONTENT_TYPE);
+            s3Service.uploadBytes(encode(fit(decoded, thumbnailSize)), thumbnailKey, CONTENT_TYPE);
+        }
+
+        return Map.of("Link", s3Service.getLink(imageKey),
+                "ThumbnailLink", s3Service.getLink(thumbnailKey));
+    }
+
+    //Reads the header first, so oversized images (decompression bombs) are rejected before any pixel buffer
+    //is allocated. Sources far above the largest rendition are subsampled while decoding.
+    private BufferedImage decode(MultipartFile image) {
+        try (InputStream in = image.getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format.");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image is too large, at most " + maxPixels + " pixels are allowed.");
+                }
+
+                int step = Math.max(1, Math.max(width, height) / (2 * maxDimension));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable image.", e);
+        }
+    }
+
+    //Scales down to fit a square box and flattens onto white; redrawing drops EXIF and other metadata
+    private BufferedImage fit(BufferedImage source, int box) {
+        double scale = Math.min(1.0, (double) box / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode image", e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private String sha256(MultipartFile image) {
+        try (DigestInputStream in = new DigestInputStream(image.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read image", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.exception.ResourceNotFoundException;
+import com.coditas.tool.management.system.repository.ToolInventoryRepository;
+import com.coditas.tool.management.system.repository.ToolUsageStatRepository;
+import com.coditas.tool.management.system.service.InventoryReservationService;
+import com.coditas.tool.management.system.service.LowStockService;
+import jakarta.transaction.Transactional;
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+//All stock movements go through single conditional UPDATE statements, so the database row lock
+//serializes concurrent crib managers instead of a read-modify-write in Java
+@Service
+public class InventoryReservationServiceImpl implements InventoryReservationService {
+
+    private final ToolInventoryRepository toolInventoryRepository;
+    private final ToolUsageStatRepository toolUsageStatRepository;
+    private final LowStockService lowStockService;
+
+    @Autowired
+    public InventoryReservationServiceImpl(ToolInventoryRepository toolInventoryRepository,
+                                           ToolUsageStatRepository toolUsageStatRepository,
+                                           LowStockService lowStockService) {
+        this.toolInventoryRepository = toolInventoryRepository;
+        this.toolUsageStatRepository = toolUsageStatRepository;
+        this.lowStockService = lowStockService;
+    }
+
+    //Takes quantity out of available stock when a request item is approved
+    @Override
+    @Transactional(rollbackOn = BadRequestException.class)
+    public void reserve(Long toolCribId, Long toolId, long quantity) throws BadRequestException {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative.");
+        }
+
+        int updated = toolInventoryRepository.reserveQuantity(toolCribId, toolId, quantity);
+        if (updated == 0) {
+            requireInventory(toolCribId, toolId);
+            throw new BadRequestException("Insufficient quantity available in ToolCrib");
+        }
+        lowStockService.evaluate(toolCribId, toolId);
+    }
+
+    //Puts returned quantity back into available stock
+    @Override
+    @Transactional
+    public void release(Long toolCribId, Long toolId, long quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative.");
+        }
+
+        if (toolInventoryRepository.releaseQuantity(toolCribId, toolId, quantity) == 0) {
+            requireInventory(toolCribId, toolId);
+        }
+        lowStockService.evaluate(toolCribId, toolId);
+    }
+
+    //Writes off reserved quantity that never comes back (counted as broken)
+    @Override
+    @Transactional
+    public void commit(Long toolCribId, Long toolId, long quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative.");
+        }
+
+        if (toolInventoryRepository.commitBrokenQuantity(toolCribId, toolId, quantity) == 0) {
+            requireInventory(toolCribId, toolId);
+        } else if (quantity > 0) {
+            toolUsageStatRepository.addBroken(toolId, quantity);
+        }
+    }
+
+    //Adds newly assigned stock to both total and available quantity
+    @Override
+    @Transactional
+    public void restock(Long toolCribId, Long toolId, long quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative.");
+        }
+
+        if (toolInventoryRepository.restockQuantity(toolCribId, toolId, quantity) == 0) {
+            requireInventory(toolCribId, toolId);
+        }
+        lowStockService.evaluate(toolCribId, toolId);
+    }
+
+    private void requireInventory(Long toolCribId, Long toolId) {
+        if (!toolInventoryRepository.existsByToolCribIdAndToolId(toolCribId, toolId)) {
+            throw new ResourceNotFoundException("Tool not found in ToolCrib");
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.coditas.tool.management.system.entity.*;
 import com.coditas.tool.management.system.exception.ResourceNotFoundException;
 import com.coditas.tool.management.system.exception.UserNotFoundException;
 import com.coditas.tool.management.system.repository.*;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
 import com.coditas.tool.management.system.service.InventoryService;
 import com.coditas.tool.management.system.specification.ToolInventorySpecification;
 import org.modelmapper.ModelMapper;
@@ -21,44 +22,32 @@ import java.util.List;
 @Service
 public class InventoryServiceImpl implements InventoryService{
 
-    private final UserRepository userRepository;
     private final ToolInventoryRepository toolInventoryRepository;
-    private final WorkplaceRepository workplaceRepository;
-    private final ToolCribRepository toolCribRepository;
-    private final WorkstationRepository workstationRepository;
     private final ModelMapper modelMapper;
 
     @Autowired
-    public InventoryServiceImpl
-            (UserRepository userRepository, ToolInventoryRepository toolInventoryRepository,
-             WorkplaceRepository workplaceRepository, ToolCribRepository toolCribRepository,
-             WorkstationRepository workstationRepository, ModelMapper modelMapper) {
-        this.userRepository = userRepository;
+    public InventoryServiceImpl(ToolInventoryRepository toolInventoryRepository, ModelMapper modelMapper) {
         this.toolInventoryRepository = toolInventoryRepository;
-        this.workplaceRepository = workplaceRepository;
-        this.toolCribRepository = toolCribRepository;
-        this.workstationRepository = workstationRepository;
         this.modelMapper = modelMapper;
     }
 
     //Workplace manager can view inventory of own tool crib
-    public Page<ToolInventoryDTO> getInventoryForManager(String email, String name, Boolean isPerishable,
-                                                         List<ToolCategory> category, Double minPrice,
-                                                         Double maxPrice, int page, int size) {
+    public Page<ToolInventoryDTO> getInventoryForManager(AuthenticatedUser currentUser, String name,
+                                                         Boolean isPerishable, List<ToolCategory> category,
+                                                         Double minPrice, Double maxPrice, int page, int size) {
 
-        User manager = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        if (currentUser.getWorkplaceId() == null) {
+            throw new UserNotFoundException("No workplace assigned to manager");
+        }
 
-        Workplace workplace = workplaceRepository.findByWorkplaceManager(manager)
-                .orElseThrow(() -> new UserNotFoundException("No workplace assigned to manager"));
-
-        ToolCrib toolCrib = toolCribRepository.findByWorkplace(workplace)
-                .orElseThrow(() -> new UserNotFoundException("No ToolCrib found for workplace"));
+        if (currentUser.getToolCribId() == null) {
+            throw new UserNotFoundException("No ToolCrib found for workplace");
+        }
 
         Pageable pageable = PageRequest.of(page, size);
 
         Specification<ToolInventory> spec = ToolInventorySpecification.filterInventory(
-                toolCrib.getId(), name, isPerishable, category, minPrice, maxPrice
+                currentUser.getToolCribId(), name, isPerishable, category, minPrice, maxPrice
         );
 
         Page<ToolInventory> inventoryPage = toolInventoryRepository.findAll(spec, pageable);
@@ -66,7 +55,7 @@ public class InventoryServiceImpl implements InventoryService{
         return inventoryPage.map(inventory -> ToolInventoryDTO.builder()
                 .toolId(inventory.getTool().getId())
                 .toolName(inventory.getTool().getName())
-                .toolImageUrl(inventory.getTool().getToolImageUrl())
+                .toolImageUrl(inventory.getTool().listingImageUrl())
                 .totalQuantity(inventory.getTotalQuantity())
                 .availableQuantity(inventory.getAvailableQuantity())
                 .brokenQuantity(inventory.getBrokenQuantity())
@@ -83,25 +72,22 @@ public class InventoryServiceImpl implements InventoryService{
 
     //Worker can also view their own inventory
     @Override
-    public Page<ToolInventoryDTO> getInventoryForWorker(String email, String name, Boolean isPerishable,
-                                                        List<ToolCategory> category, Double minPrice,
-                                                        Double maxPrice, int page, int size) {
-
-        User worker = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    public Page<ToolInventoryDTO> getInventoryForWorker(AuthenticatedUser currentUser, String name,
+                                                        Boolean isPerishable, List<ToolCategory> category,
+                                                        Double minPrice, Double maxPrice, int page, int size) {
 
-        Workstation workstation = workstationRepository.findByWorker(worker)
-                .orElseThrow(() -> new UserNotFoundException("Workstation not found for worker"));
+        if (currentUser.getWorkstationId() == null) {
+            throw new UserNotFoundException("Workstation not found for worker");
+        }
 
-        Workplace workplace = workstation.getWorkplace();
-
-        ToolCrib toolCrib = toolCribRepository.findByWorkplace(workplace)
-                .orElseThrow(() -> new UserNotFoundException("Tool crib not found for workplace"));
+        if (currentUser.getToolCribId() == null) {
+            throw new UserNotFoundException("Tool crib not found for workplace");
+        }
 
         Pageable pageable = PageRequest.of(page, size);
 
         Specification<ToolInventory> spec = ToolInventorySpecification.filterInventory(
-                toolCrib.getId(), name, isPerishable, category, minPrice, maxPrice
+                currentUser.getToolCribId(), name, isPerishable, category, minPrice, maxPrice
         );
 
         Page<ToolInventory> inventoryPage = toolInventoryRepository.findAll(spec, pageable);
@@ -111,7 +97,7 @@ public class InventoryServiceImpl implements InventoryService{
                 .toolCribName(inventory.getToolCrib().getName())
                 .toolCribId(inventory.getToolCrib().getId())
                 .toolName(inventory.getTool().getName())
-                .toolImageUrl(inventory.getTool().getToolImageUrl())
+                .toolImageUrl(inventory.getTool().listingImageUrl())
                 .availableQuantity(inventory.getAvailableQuantity())
                 .totalQuantity(inventory.getTotalQuantity())
                 .minimumThreshold(inventory.getMinimumThreshold())
@@ -127,18 +113,16 @@ public class InventoryServiceImpl implements InventoryService{
     //Tool Crib Manager can also view their own inventory
     @Override
     public Page<ToolInventoryDTO> getInventoryForToolCribManager
-            (String email, String name, List<ToolCategory> category,
+            (AuthenticatedUser currentUser, String name, List<ToolCategory> category,
              Boolean isPerishable, Double minPrice, Double maxPrice,
              int page, int size) {
 
-        User toolCribManager = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-        ToolCrib toolCrib = toolCribRepository.findByToolCribManagersContaining(toolCribManager)
-                .orElseThrow(() -> new UserNotFoundException("No ToolCrib assigned to ToolCribManager"));
+        if (currentUser.getToolCribId() == null) {
+            throw new UserNotFoundException("No ToolCrib assigned to ToolCribManager");
+        }
 
         Specification<ToolInventory> spec = ToolInventorySpecification.filterInventoryByToolProperties(
-                toolCrib.getId(), name, category, isPerishable, minPrice, maxPrice
+                currentUser.getToolCribId(), name, category, isPerishable, minPrice, maxPrice
         );
 
         Pageable pageable = PageRequest.of(page, size);
@@ -147,7 +131,7 @@ public class InventoryServiceImpl implements InventoryService{
         return inventoryPage.map(inventory -> ToolInventoryDTO.builder()
                 .toolId(inventory.getTool().getId())
                 .toolName(inventory.getTool().getName())
-                .toolImageUrl(inventory.getTool().getToolImageUrl())
+                .toolImageUrl(inventory.getTool().listingImageUrl())
                 .totalQuantity(inventory.getTotalQuantity())
                 .availableQuantity(inventory.getAvailableQuantity())
                 .brokenQuantity(inventory.getBrokenQuantity())
@@ -0,0 +1,52 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.repository.ToolInventoryRepository;
+import com.coditas.tool.management.system.service.LowStockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+//Keeps tool_inventory.low_stock in step with available quantity. Called right after every stock movement,
+//while the movement's row lock is still held, so each crossing flips the flag (and fires an event) exactly once.
+@Service
+public class LowStockServiceImpl implements LowStockService {
+
+    private final ToolInventoryRepository toolInventoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter fellBelow;
+    private final Counter recovered;
+
+    @Autowired
+    public LowStockServiceImpl(ToolInventoryRepository toolInventoryRepository,
+                               ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.toolInventoryRepository = toolInventoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.fellBelow = Counter.builder("inventory.low_stock.crossings").tag("direction", "below")
+                .register(meterRegistry);
+        this.recovered = Counter.builder("inventory.low_stock.crossings").tag("direction", "recovered")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void evaluate(Long toolCribId, Long toolId) {
+        if (toolInventoryRepository.markLowStock(toolCribId, toolId) > 0) {
+            fellBelow.increment();
+            toolInventoryRepository.findRestockEvent(toolCribId, toolId).ifPresent(eventPublisher::publishEvent);
+        } else if (toolInventoryRepository.clearLowStock(toolCribId, toolId) > 0) {
+            recovered.increment();
+        }
+    }
+
+    //Thresholds can be edited outside the movement paths, so the flags are recomputed once on start
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void resync() {
+        toolInventoryRepository.resyncLowStock();
+    }
+}
@@ -0,0 +1,107 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.config.AsyncExecutorConfig;
+import com.coditas.tool.management.system.repository.ToolRequestItemOverdueRepository.DueKey;
+import com.coditas.tool.management.system.repository.ToolRequestItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+//Daily pass over pending items past their return date. The keyset walk over the return_date index stays on
+//this thread; each chunk's fine update runs on the sweeper pool (async.executors.sweeper.*), whose
+//caller-runs policy throttles the walk when all workers are busy. Reminders are queued afterwards as one
+//digest mail per worker in a single INSERT ... SELECT into the outbox. The whole run holds a postgres
+//advisory lock, so with several instances only one sweeps; digests are deduped per worker and day.
+@Component
+public class OverdueSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueSweeper.class);
+    private static final LocalDateTime START_KEY = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ToolRequestItemRepository toolRequestItemRepository;
+    private final Executor sweeperExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int digestMaxLines;
+    private final Counter finesUpdated;
+    private final Counter remindersQueued;
+    private final Timer sweepTimer;
+
+    @Autowired
+    public OverdueSweeper(ToolRequestItemRepository toolRequestItemRepository,
+                          @Qualifier(AsyncExecutorConfig.SWEEPER_EXECUTOR) Executor sweeperExecutor,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${overdue.sweeper.chunk-size:1000}") int chunkSize,
+                          @Value("${overdue.sweeper.digest-max-lines:20}") int digestMaxLines) {
+        this.toolRequestItemRepository = toolRequestItemRepository;
+        this.sweeperExecutor = sweeperExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.digestMaxLines = digestMaxLines;
+        this.finesUpdated = meterRegistry.counter("overdue.sweeper.fines.updated");
+        this.remindersQueued = meterRegistry.counter("overdue.sweeper.reminders.queued");
+        this.sweepTimer = meterRegistry.timer("overdue.sweeper.run");
+    }
+
+    @Scheduled(cron = "${overdue.sweeper.cron:0 0 7 * * *}")
+    public void sweep() {
+        //The lock lives as long as this transaction; chunk updates commit on their own connections
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!toolRequestItemRepository.tryLockSweep()) {
+                log.info("Overdue sweep skipped, another instance holds the lock");
+                return;
+            }
+            sweepTimer.record(this::runSweep);
+        });
+    }
+
+    private void runSweep() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        LocalDateTime afterReturnDate = START_KEY;
+        long afterId = 0;
+        List<DueKey> keys;
+        do {
+            keys = toolRequestItemRepository.findOverdueKeys(now, afterReturnDate, afterId, chunkSize);
+            if (keys.isEmpty()) {
+                break;
+            }
+
+            List<Long> ids = keys.stream().map(DueKey::id).toList();
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> toolRequestItemRepository.accrueLateFines(ids, today), sweeperExecutor));
+
+            DueKey last = keys.get(keys.size() - 1);
+            afterReturnDate = last.returnDate();
+            afterId = last.id();
+        } while (keys.size() == chunkSize);
+
+        //Digests read the fines, so every chunk has to be written first
+        int updated = chunks.stream().mapToInt(CompletableFuture::join).sum();
+        finesUpdated.increment(updated);
+
+        int queued = toolRequestItemRepository.enqueueOverdueDigests(now, digestMaxLines);
+        remindersQueued.increment(queued);
+
+        log.info("Overdue sweep: {} chunks, {} fines updated, {} reminders queued", chunks.size(), updated, queued);
+    }
+}
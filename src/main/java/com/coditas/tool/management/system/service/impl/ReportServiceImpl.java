@@ -2,45 +2,44 @@ package com.coditas.tool.management.system.service.impl;
 
 import com.coditas.tool.management.system.dto.sharedResponse.SuccessResponse;
 import com.coditas.tool.management.system.dto.tool.TopToolReportDTO;
-import com.coditas.tool.management.system.repository.ToolInventoryRepository;
+import com.coditas.tool.management.system.dto.tool.UsageReportRowDTO;
 import com.coditas.tool.management.system.repository.ToolRepository;
-import com.coditas.tool.management.system.repository.ToolRequestItemRepository;
+import com.coditas.tool.management.system.repository.ToolUsageDailyRepository;
+import com.coditas.tool.management.system.repository.ToolUsageStatRepository;
 import com.coditas.tool.management.system.service.ReportService;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class ReportServiceImpl implements ReportService {
 
-    private final ToolRequestItemRepository toolRequestItemRepository;
-    private final ToolInventoryRepository toolInventoryRepository;
+    private static final int TOP_N = 3;
+    private static final long MAX_USAGE_WINDOW_DAYS = 366;
+
+    private final ToolUsageStatRepository toolUsageStatRepository;
     private final ToolRepository toolRepository;
+    private final ToolUsageDailyRepository toolUsageDailyRepository;
 
     @Autowired
-    public ReportServiceImpl(ToolRequestItemRepository toolRequestItemRepository, ToolInventoryRepository toolInventoryRepository, ToolRepository toolRepository) {
-        this.toolRequestItemRepository = toolRequestItemRepository;
-        this.toolInventoryRepository = toolInventoryRepository;
+    public ReportServiceImpl(ToolUsageStatRepository toolUsageStatRepository, ToolRepository toolRepository,
+                             ToolUsageDailyRepository toolUsageDailyRepository) {
+        this.toolUsageStatRepository = toolUsageStatRepository;
         this.toolRepository = toolRepository;
+        this.toolUsageDailyRepository = toolUsageDailyRepository;
     }
 
     @Override
     public SuccessResponse getTopDemandedTools() {
-        List<TopToolReportDTO> rawList = toolRequestItemRepository.findTopDemandedTools();
-
-        List<TopToolReportDTO> top3 = new ArrayList<>();
-        for (int i = 0; i < 3; i++) { //top 3 will be looped. If any item has null/0 value, it will be linked as null
-            if (i < rawList.size()) {
-                top3.add(rawList.get(i));
-            } else {
-                top3.add(new TopToolReportDTO(null, null));
-            }
-        }
+        //Reads the top rows of the maintained totals instead of aggregating tool_request_items
+        List<TopToolReportDTO> top3 = padded(toolUsageStatRepository.findTopDemandedTools(Limit.of(TOP_N)));
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Here are the top 3 demanded tools !")
@@ -51,16 +50,7 @@ public class ReportServiceImpl implements ReportService {
 
     @Override
     public SuccessResponse getMostBrokenTools() {
-        List<TopToolReportDTO> rawList = toolInventoryRepository.findTopBrokenTools();
-
-        List<TopToolReportDTO> top3 = new ArrayList<>();
-        for (int i = 0; i < 3; i++) {
-            if (i < rawList.size()) {
-                top3.add(rawList.get(i));
-            } else {
-                top3.add(TopToolReportDTO.builder().toolName(null).value(null).build());
-            }
-        }
+        List<TopToolReportDTO> top3 = padded(toolUsageStatRepository.findTopBrokenTools(Limit.of(TOP_N)));
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -72,16 +62,7 @@ public class ReportServiceImpl implements ReportService {
 
     @Override
     public SuccessResponse getTopPricedTools() {
-        List<TopToolReportDTO> rawList = toolRepository.findTopPricedTools();
-
-        List<TopToolReportDTO> top3 = new ArrayList<>();
-        for (int i = 0; i < 3; i++) {
-            if (i < rawList.size()) {
-                top3.add(rawList.get(i));
-            } else {
-                top3.add(TopToolReportDTO.builder().toolName(null).value(null).build());
-            }
-        }
+        List<TopToolReportDTO> top3 = padded(toolRepository.findTopPricedTools(Limit.of(TOP_N)));
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -90,4 +71,35 @@ public class ReportServiceImpl implements ReportService {
                 .time(LocalDateTime.now())
                 .build();
     }
-}
\ No newline at end of file
+
+    @Override
+    public SuccessResponse getUsageReport(String groupBy, String bucket, LocalDate from, LocalDate to,
+                                          Long facilityId, Long workplaceId, Long toolCribId, Long toolId) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_USAGE_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Usage window cannot exceed " + MAX_USAGE_WINDOW_DAYS + " days.");
+        }
+
+        //Week and month buckets are summed from the daily rollup rows, never from raw requests
+        List<UsageReportRowDTO> rows = toolUsageDailyRepository.aggregate(groupBy, bucket, from, to,
+                facilityId, workplaceId, toolCribId, toolId);
+
+        return SuccessResponse.builder()
+                .status(HttpStatus.OK.value())
+                .message("Usage report fetched successfully.")
+                .data(rows)
+                .time(LocalDateTime.now())
+                .build();
+    }
+
+    //Always returns TOP_N entries, missing places are filled with empty rows
+    private List<TopToolReportDTO> padded(List<TopToolReportDTO> rows) {
+        List<TopToolReportDTO> top = new ArrayList<>(rows);
+        while (top.size() < TOP_N) {
+            top.add(TopToolReportDTO.builder().toolName(null).value(null).build());
+        }
+        return top;
+    }
+}
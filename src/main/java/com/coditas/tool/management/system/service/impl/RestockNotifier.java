@@ -0,0 +1,62 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.dto.tool.ToolRestockEvent;
+import com.coditas.tool.management.system.entity.ToolCrib;
+import com.coditas.tool.management.system.entity.User;
+import com.coditas.tool.management.system.repository.ToolCribRepository;
+import com.coditas.tool.management.system.service.EmailService;
+import com.coditas.tool.management.system.service.ToolCatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+//Runs inside the transaction that crossed the threshold; the mails go through the outbox,
+//so nothing is sent if that transaction rolls back
+@Component
+public class RestockNotifier {
+
+    private final ToolCribRepository toolCribRepository;
+    private final ToolCatalogService toolCatalogService;
+    private final EmailService emailService;
+
+    @Autowired
+    public RestockNotifier(ToolCribRepository toolCribRepository, ToolCatalogService toolCatalogService,
+                           EmailService emailService) {
+        this.toolCribRepository = toolCribRepository;
+        this.toolCatalogService = toolCatalogService;
+        this.emailService = emailService;
+    }
+
+    @EventListener
+    public void onRestockNeeded(ToolRestockEvent event) {
+        ToolCrib toolCrib = toolCribRepository.findById(event.getToolCribId()).orElse(null);
+        if (toolCrib == null) {
+            return;
+        }
+
+        Set<String> recipients = new LinkedHashSet<>();
+        for (User manager : toolCrib.getToolCribManagers()) {
+            recipients.add(manager.getEmail());
+        }
+        if (toolCrib.getWorkplace() != null && toolCrib.getWorkplace().getFacility() != null
+                && toolCrib.getWorkplace().getFacility().getFacilityManager() != null) {
+            recipients.add(toolCrib.getWorkplace().getFacility().getFacilityManager().getEmail());
+        }
+
+        String toolName = toolCatalogService.getById(event.getToolId()).getName();
+        String subject = "Restock needed: " + toolName + " in " + toolCrib.getName();
+        String body = "Hello,\n\n" +
+                "Available stock of " + toolName + " in tool crib " + toolCrib.getName() +
+                " has dropped to " + event.getAvailableQuantity() +
+                ", below the minimum threshold of " + event.getMinimumThreshold() + ".\n\n" +
+                "Please arrange a restock.\n\n" +
+                "Regards,\nTool Management System";
+
+        for (String recipient : recipients) {
+            emailService.sendEmail(recipient, subject, body);
+        }
+    }
+}
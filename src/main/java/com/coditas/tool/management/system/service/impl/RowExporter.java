@@ -0,0 +1,98 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.constant.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+//Writes a forward-only entity stream row by row. Every batchRows rows the output is flushed and the
+//persistence context cleared, so neither the response nor Hibernate hold on to already written rows.
+//Must run inside the transaction that opened the stream.
+@Component
+public class RowExporter {
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int batchRows;
+
+    @Autowired
+    public RowExporter(EntityManager entityManager, ObjectMapper objectMapper,
+                       @Value("${export.batch-rows:500}") int batchRows) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.batchRows = batchRows;
+    }
+
+    public record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    public <T> void write(Stream<T> rows, ExportFormat format, List<Column<T>> columns,
+                          OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", columns.stream().map(column -> csv(column.name())).toList()));
+            writer.write("\n");
+        }
+
+        long written = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, row, columns);
+            } else {
+                writeJsonLine(writer, row, columns);
+            }
+
+            if (++written % batchRows == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+    }
+
+    private <T> void writeCsvLine(Writer writer, T row, List<Column<T>> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(",");
+            }
+            Object value = columns.get(i).value().apply(row);
+            writer.write(value == null ? "" : csv(value.toString()));
+        }
+        writer.write("\n");
+    }
+
+    private <T> void writeJsonLine(Writer writer, T row, List<Column<T>> columns) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        for (Column<T> column : columns) {
+            line.put(column.name(), column.value().apply(row));
+        }
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.write("\n");
+    }
+
+    //RFC 4180 quoting, only when the value needs it
+    private String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -1,30 +1,30 @@
 package com.coditas.tool.management.system.service.impl;
 
 import com.coditas.tool.management.system.service.S3Service;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.BlockingInputStreamAsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
-@RequiredArgsConstructor
 public class S3ServiceImpl implements S3Service {
 
-    @Value("${aws.access.key}")
-    private String awsAccessKey;
-
-    @Value("${aws.secret.key}")
-    private String awsSecretKey;
+    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
 
     @Value("${aws.region}")
     private String region;
@@ -32,36 +32,62 @@ public class S3ServiceImpl implements S3Service {
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
 
-    private S3Client getS3Client() {
-        AwsBasicCredentials credentials = AwsBasicCredentials.create(awsAccessKey, awsSecretKey);
+    @Value("${aws.s3.multipart.threshold:8MB}")
+    private DataSize multipartThreshold;
 
-        return S3Client.builder()
-                .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                .build();
+    @Autowired
+    public S3ServiceImpl(S3Client s3Client, S3AsyncClient s3AsyncClient) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
     }
 
     @Override
-    public Map<String,String> uploadPhoto(MultipartFile file, String key) {
-        try {
-
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)  //setting the bucket name
-                    .key(key) //link
-                    .contentType(file.getContentType())
-                    .build();
-
-            getS3Client().putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+    public void upload(InputStream content, long contentLength, String key, String contentType) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .cacheControl("public, max-age=31536000, immutable")
+                .build();
 
-            String link = "https://" + bucketName + ".s3." + region + ".amazonaws.com/" + key;
+        //Large objects go through the multipart-enabled async client; this thread feeds the stream
+        //into the request body while the client uploads the parts
+        if (contentLength >= multipartThreshold.toBytes()) {
+            BlockingInputStreamAsyncRequestBody body = AsyncRequestBody.forBlockingInputStream(contentLength);
+            CompletableFuture<PutObjectResponse> upload = s3AsyncClient.putObject(putObjectRequest, body);
+            try {
+                body.writeInputStream(content);
+                upload.join();
+            } catch (CompletionException e) {
+                throw new RuntimeException("Failed to upload", e.getCause());
+            } catch (RuntimeException e) {
+                //The stream could not be read or the client stopped consuming it
+                upload.cancel(true);
+                throw new RuntimeException("Failed to upload", e);
+            }
+            return;
+        }
+        s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(content, contentLength));
+    }
 
-            //returning the object
-            Map<String,String> response = new HashMap<>();
-            response.put("Link", link);
+    @Override
+    public void uploadBytes(byte[] content, String key, String contentType) {
+        upload(new ByteArrayInputStream(content), content.length, key, contentType);
+    }
 
-            return response;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload", e);
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getLink(String key) {
+        return "https://" + bucketName + ".s3." + region + ".amazonaws.com/" + key;
+    }
+}
@@ -0,0 +1,148 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.dto.tool.ToolCatalogEntry;
+import com.coditas.tool.management.system.entity.Tool;
+import com.coditas.tool.management.system.exception.ResourceNotFoundException;
+import com.coditas.tool.management.system.repository.ToolRepository;
+import com.coditas.tool.management.system.service.ToolCatalogService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+//Read-through LRU of catalog tools keyed by id, with a name -> id index.
+//Loads run outside the lock; a load that raced with an eviction is not stored.
+@Service
+public class ToolCatalogServiceImpl implements ToolCatalogService {
+
+    private final ToolRepository toolRepository;
+    private final long ttlMillis;
+    private final LinkedHashMap<Long, CachedTool> byId;
+    private final Map<String, Long> idByName = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private long generation;
+
+    @Autowired
+    public ToolCatalogServiceImpl(ToolRepository toolRepository, MeterRegistry meterRegistry,
+                                  @Value("${tool.catalog.cache.max-size:2000}") int maxSize,
+                                  @Value("${tool.catalog.cache.ttl:10m}") Duration ttl) {
+        this.toolRepository = toolRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedTool> eldest) {
+                if (size() > maxSize) {
+                    idByName.remove(eldest.getValue().entry().getName());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = meterRegistry.counter("tool.catalog.cache", "result", "hit");
+        this.misses = meterRegistry.counter("tool.catalog.cache", "result", "miss");
+        this.evictions = meterRegistry.counter("tool.catalog.cache.evictions");
+        meterRegistry.gauge("tool.catalog.cache.size", this, ToolCatalogServiceImpl::size);
+    }
+
+    @Override
+    public Optional<ToolCatalogEntry> findById(Long id) {
+        ToolCatalogEntry cached = cachedById(id);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        return load(() -> toolRepository.findById(id));
+    }
+
+    @Override
+    public Optional<ToolCatalogEntry> findByName(String name) {
+        ToolCatalogEntry cached = cachedByName(name);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        return load(() -> toolRepository.findByName(name));
+    }
+
+    @Override
+    public ToolCatalogEntry getById(Long id) {
+        return findById(id).orElseThrow(() -> new ResourceNotFoundException("Tool not found"));
+    }
+
+    @Override
+    public synchronized void evict(Long id) {
+        generation++;
+        CachedTool removed = byId.remove(id);
+        if (removed != null) {
+            idByName.remove(removed.entry().getName());
+            evictions.increment();
+        }
+    }
+
+    private synchronized ToolCatalogEntry cachedById(Long id) {
+        CachedTool cached = byId.get(id);
+        if (cached == null) return null;
+        if (cached.expiresAt().isBefore(Instant.now())) {
+            byId.remove(id);
+            idByName.remove(cached.entry().getName());
+            return null;
+        }
+        return cached.entry();
+    }
+
+    private synchronized ToolCatalogEntry cachedByName(String name) {
+        Long id = idByName.get(name);
+        return id == null ? null : cachedById(id);
+    }
+
+    private Optional<ToolCatalogEntry> load(Supplier<Optional<Tool>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        Optional<ToolCatalogEntry> loaded = loader.get().map(this::toEntry);
+        loaded.ifPresent(entry -> store(entry, loadGeneration));
+        return loaded;
+    }
+
+    private synchronized void store(ToolCatalogEntry entry, long loadGeneration) {
+        //A tool was written while loading, the loaded copy may already be stale
+        if (loadGeneration != generation) return;
+        byId.put(entry.getId(), new CachedTool(entry, Instant.now().plusMillis(ttlMillis)));
+        idByName.put(entry.getName(), entry.getId());
+    }
+
+    private synchronized int size() {
+        return byId.size();
+    }
+
+    private ToolCatalogEntry toEntry(Tool tool) {
+        return ToolCatalogEntry.builder()
+                .id(tool.getId())
+                .name(tool.getName())
+                .price(tool.getPrice())
+                .fineAmount(tool.getFineAmount())
+                .category(tool.getCategory())
+                .isPerishable(tool.getIsPerishable())
+                .returnPeriod(tool.getReturnPeriod())
+                .toolImageUrl(tool.getToolImageUrl())
+                .toolThumbnailUrl(tool.getToolThumbnailUrl())
+                .build();
+    }
+
+    private record CachedTool(ToolCatalogEntry entry, Instant expiresAt) {
+    }
+}
@@ -15,16 +15,18 @@ import com.coditas.tool.management.system.repository.RoleRepository;
 import com.coditas.tool.management.system.repository.ToolCribRepository;
 import com.coditas.tool.management.system.repository.UserRepository;
 import com.coditas.tool.management.system.repository.WorkplaceRepository;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
+import com.coditas.tool.management.system.security.AuthenticatedUserCache;
+import com.coditas.tool.management.system.security.PremiseTopologyIndex;
 import com.coditas.tool.management.system.service.EmailService;
 import com.coditas.tool.management.system.service.ToolCribService;
+import com.coditas.tool.management.system.specification.TextSearch;
 import com.coditas.tool.management.system.specification.ToolCribSpecification;
 import org.apache.coyote.BadRequestException;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -43,15 +45,20 @@ public class ToolCribServiceImpl implements ToolCribService {
     private final ModelMapper modelMapper;
     private final RoleRepository roleRepository;
     private final EmailService emailService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final PremiseTopologyIndex premiseTopologyIndex;
 
     @Autowired
-    public ToolCribServiceImpl(UserRepository userRepository, WorkplaceRepository workplaceRepository, ToolCribRepository toolCribRepository, ModelMapper modelMapper, RoleRepository roleRepository, EmailService emailService) {
+    public ToolCribServiceImpl(UserRepository userRepository, WorkplaceRepository workplaceRepository, ToolCribRepository toolCribRepository, ModelMapper modelMapper, RoleRepository roleRepository, EmailService emailService, AuthenticatedUserCache authenticatedUserCache,
+                               PremiseTopologyIndex premiseTopologyIndex) {
         this.userRepository = userRepository;
         this.workplaceRepository = workplaceRepository;
         this.toolCribRepository = toolCribRepository;
         this.modelMapper = modelMapper;
         this.roleRepository = roleRepository;
         this.emailService = emailService;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.premiseTopologyIndex = premiseTopologyIndex;
     }
 
 
@@ -90,6 +97,7 @@ public class ToolCribServiceImpl implements ToolCribService {
         //Linking to toolcrib
         toolCrib.getToolCribManagers().add(user);
         toolCribRepository.save(toolCrib);
+        premiseTopologyIndex.invalidate();
 
         //Email
         String subject = "Welcome Aboard Tool Crib Manager " + user.getName() + "!";
@@ -131,6 +139,9 @@ public class ToolCribServiceImpl implements ToolCribService {
                 userRepository.existsByEmail(dto.getEmail())) {
             throw new UserEmailAlreadyExistsException("Email already exists! Use a different one.");
         }
+        //Tokens issued for the old details must not keep working
+        authenticatedUserCache.revoke(toolCribManager.getEmail());
+
         //updation
         toolCribManager.setName(dto.getName());
         toolCribManager.setEmail(dto.getEmail());
@@ -169,9 +180,11 @@ public class ToolCribServiceImpl implements ToolCribService {
         //Remove from ToolCrib manager list(deleting linkage to avoid refrential constrait)
         toolCrib.getToolCribManagers().remove(toolCribManager);
         toolCribRepository.save(toolCrib);
+        premiseTopologyIndex.invalidate();
 
         //Delete the user
         userRepository.delete(toolCribManager);
+        authenticatedUserCache.revoke(toolCribManager.getEmail());
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -182,55 +195,19 @@ public class ToolCribServiceImpl implements ToolCribService {
 
     @Override
     public Page<UserListDTO> getToolCribManagers(int page, int size, String search, List<String> fields) {
-        String loggedInEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        User manager = userRepository.findByEmail(loggedInEmail)
-                .orElseThrow(() -> new UserNotFoundException("Authenticated workplace manager not found"));
+        Long toolCribId = AuthenticatedUser.current().getToolCribId();
+        if (toolCribId == null) {
+            throw new PremiseNotFoundException("ToolCrib not found for the workplace");
+        }
 
-        Workplace workplace = workplaceRepository.findByWorkplaceManager(manager)
-                .orElseThrow(() -> new PremiseNotFoundException("No workplace found for the logged-in manager"));
+        //Every selected field has to match, same as before, but filtered and paged in SQL
+        boolean filter = search != null && fields != null;
+        String pattern = TextSearch.likePattern(search);
 
-        ToolCrib toolCrib = toolCribRepository.findByWorkplace(workplace)
-                .orElseThrow(() -> new PremiseNotFoundException("ToolCrib not found for the workplace"));
-
-        List<User> cribManagers = toolCrib.getToolCribManagers().stream()
-                .filter(User::getActive)//getting active toolCribManager
-                .collect(Collectors.toList());
-
-        List<UserListDTO> dtoList = cribManagers.stream()
-                .map(user -> {
-                    UserListDTO dto = new UserListDTO();
-                    dto.setId(user.getId());
-                    dto.setName(user.getName());
-                    dto.setEmail(user.getEmail());
-                    return dto;
-                })
-                .filter(dto -> {
-                    if (search == null || fields == null) return true;
-
-                    String keyword = search.toLowerCase();
-                    boolean matches = true;
-
-                    if (fields.contains("name")) {
-                        matches &= dto.getName() != null && dto.getName().toLowerCase().contains(keyword);
-                    }
-                    if (fields.contains("email")) {
-                        matches &= dto.getEmail() != null && dto.getEmail().toLowerCase().contains(keyword);
-                    }
-
-                    return matches;
-                })
-                .collect(Collectors.toList());
-
-        //need to manually set number of pages as i am doing filtering at DTO level (not entity level)
-        Pageable pageable = PageRequest.of(page, size);
-        //returns the index of the first item for the page and converts to Int fron Long
-        int start = Math.toIntExact(pageable.getOffset());
-        //Out of bounds checking
-        int end = Math.min((start + pageable.getPageSize()), dtoList.size());
-        List<UserListDTO> paged = dtoList.subList(start, end);
-
-        return new PageImpl<>(paged, pageable, dtoList.size());
+        return userRepository.findToolCribManagerList(toolCribId, pattern,
+                filter && fields.contains("name"),
+                filter && fields.contains("email"),
+                PageRequest.of(page, size));
     }
 
     @Override
@@ -1,40 +1,58 @@
 package com.coditas.tool.management.system.service.impl;
 
+import com.coditas.tool.management.system.constant.ExportFormat;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
 import com.coditas.tool.management.system.dto.tool.ToolInventoryLogDTO;
 import com.coditas.tool.management.system.entity.ToolInventoryLog;
 import com.coditas.tool.management.system.entity.User;
 import com.coditas.tool.management.system.repository.ToolInventoryLogRepository;
 import com.coditas.tool.management.system.repository.UserRepository;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
 import com.coditas.tool.management.system.service.ToolInventoryLogService;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class ToolInventoryLogServiceImpl implements ToolInventoryLogService {
 
+    private static final List<RowExporter.Column<ToolInventoryLog>> LOG_EXPORT_COLUMNS = List.of(
+            new RowExporter.Column<>("logId", ToolInventoryLog::getId),
+            new RowExporter.Column<>("assignedAt", ToolInventoryLog::getAssignedAt),
+            new RowExporter.Column<>("assignedBy", log -> log.getAssignedBy().getEmail()),
+            new RowExporter.Column<>("toolId", log -> log.getTool().getId()),
+            new RowExporter.Column<>("toolName", log -> log.getTool().getName()),
+            new RowExporter.Column<>("workplaceName", log -> log.getWorkplace().getName()),
+            new RowExporter.Column<>("toolCribName", log -> log.getToolCrib().getName()),
+            new RowExporter.Column<>("quantityAssigned", ToolInventoryLog::getQuantityAssigned));
+
     private final ToolInventoryLogRepository logRepository;
     private final UserRepository userRepository;
+    private final RowExporter rowExporter;
 
     @Autowired
     public ToolInventoryLogServiceImpl(ToolInventoryLogRepository logRepository,
-                                       UserRepository userRepository) {
+                                       UserRepository userRepository, RowExporter rowExporter) {
         this.logRepository = logRepository;
         this.userRepository = userRepository;
+        this.rowExporter = rowExporter;
     }
 
     @Override
     public Page<ToolInventoryLogDTO> getLogs(int page, int size,
                                              LocalDateTime minDateTime, LocalDateTime maxDateTime) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.getReferenceById(AuthenticatedUser.current().getId());
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("assignedAt").descending());
 
@@ -44,14 +62,54 @@ public class ToolInventoryLogServiceImpl implements ToolInventoryLogService {
                         maxDateTime != null ? maxDateTime : LocalDateTime.now(),
                         pageable);
 
-        return logs.map(log -> ToolInventoryLogDTO.builder()
+        return logs.map(this::toDto);
+    }
+
+    @Override
+    public CursorPage<ToolInventoryLogDTO> getLogs(String cursor, int size,
+                                                   LocalDateTime minDateTime, LocalDateTime maxDateTime) {
+        User user = userRepository.getReferenceById(AuthenticatedUser.current().getId());
+
+        String lastId = CursorPage.decode(cursor);
+        long seekId;
+        try {
+            seekId = lastId != null ? Long.parseLong(lastId) : Long.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+
+        //size + 1 rows tell whether a next page exists without a count query
+        List<ToolInventoryLog> rows = logRepository
+                .findByAssignedByAndAssignedAtBetweenAndIdLessThanOrderByIdDesc(user,
+                        minDateTime != null ? minDateTime : LocalDateTime.MIN,
+                        maxDateTime != null ? maxDateTime : LocalDateTime.now(),
+                        seekId, Limit.of(size + 1));
+
+        return CursorPage.of(rows, size, log -> String.valueOf(log.getId()), this::toDto);
+    }
+
+    @Override
+    @Transactional
+    public void exportLogs(ExportFormat format, LocalDateTime minDateTime, LocalDateTime maxDateTime,
+                           OutputStream out) throws IOException {
+        User user = userRepository.getReferenceById(AuthenticatedUser.current().getId());
+
+        try (Stream<ToolInventoryLog> rows = logRepository.streamByAssignedByAndAssignedAtBetweenOrderByIdDesc(user,
+                minDateTime != null ? minDateTime : LocalDateTime.MIN,
+                maxDateTime != null ? maxDateTime : LocalDateTime.now())) {
+            rowExporter.write(rows, format, LOG_EXPORT_COLUMNS, out);
+        }
+    }
+
+    private ToolInventoryLogDTO toDto(ToolInventoryLog log) {
+        return ToolInventoryLogDTO.builder()
                 .toolName(log.getTool().getName())
                 .workplaceName(log.getWorkplace().getName())
                 .toolCribName(log.getToolCrib().getName())
                 .assignedBy(log.getAssignedBy().getEmail())
                 .quantityAssigned(log.getQuantityAssigned())
                 .assignedAt(log.getAssignedAt())
-                .build());
+                .build();
     }
 
 }
\ No newline at end of file
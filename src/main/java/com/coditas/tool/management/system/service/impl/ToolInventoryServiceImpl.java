@@ -1,14 +1,19 @@
 package com.coditas.tool.management.system.service.impl;
 
 import com.coditas.tool.management.system.dto.tool.AssignToolRequestDTO;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
 import com.coditas.tool.management.system.dto.sharedResponse.SuccessResponse;
 import com.coditas.tool.management.system.dto.tool.ToolInventoryDTO;
 import com.coditas.tool.management.system.entity.*;
 import com.coditas.tool.management.system.exception.PremiseNotFoundException;
 import com.coditas.tool.management.system.exception.UserNotFoundException;
 import com.coditas.tool.management.system.repository.*;
+import com.coditas.tool.management.system.service.InventoryReservationService;
+import com.coditas.tool.management.system.service.ToolCatalogService;
 import com.coditas.tool.management.system.service.ToolInventoryService;
+import com.coditas.tool.management.system.service.ToolSuggestService;
 import com.coditas.tool.management.system.specification.ToolInventorySpecification;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +27,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -33,20 +39,29 @@ public class ToolInventoryServiceImpl implements ToolInventoryService {
     private final ToolInventoryRepository toolInventoryRepository;
     private final UserRepository userRepository;
     private final ToolInventoryLogRepository logRepository;
+    private final InventoryReservationService inventoryReservationService;
+    private final ToolCatalogService toolCatalogService;
+    private final ToolSuggestService toolSuggestService;
 
     public ToolInventoryServiceImpl
             (WorkplaceRepository workplaceRepository, ToolCribRepository toolCribRepository,
              ToolRepository toolRepository, ToolInventoryRepository toolInventoryRepository,
-             UserRepository userRepository, ToolInventoryLogRepository logRepository) {
+             UserRepository userRepository, ToolInventoryLogRepository logRepository,
+             InventoryReservationService inventoryReservationService, ToolCatalogService toolCatalogService,
+             ToolSuggestService toolSuggestService) {
         this.workplaceRepository = workplaceRepository;
         this.toolCribRepository = toolCribRepository;
         this.toolRepository = toolRepository;
         this.toolInventoryRepository = toolInventoryRepository;
         this.userRepository = userRepository;
         this.logRepository = logRepository;
+        this.inventoryReservationService = inventoryReservationService;
+        this.toolCatalogService = toolCatalogService;
+        this.toolSuggestService = toolSuggestService;
     }
 
     @Override
+    @Transactional
     public SuccessResponse assignToolToWorkplace(AssignToolRequestDTO request) {
         //Get workplace
         Workplace workplace = workplaceRepository.findById(request.getWorkplaceId())
@@ -63,19 +78,18 @@ public class ToolInventoryServiceImpl implements ToolInventoryService {
         ToolCrib toolCrib = toolCribRepository.findByWorkplaceId(workplace.getId())
                 .orElseThrow(() -> new PremiseNotFoundException("ToolCrib not found for workplace"));
 
-        //Get the tool
-        Tool tool = toolRepository.findById(request.getToolId())
-                .orElseThrow(() -> new PremiseNotFoundException("Tool not found"));
+        //Existence check through the catalog cache; the entity is only needed as a reference for the FKs
+        Long toolId = toolCatalogService.findById(request.getToolId())
+                .orElseThrow(() -> new PremiseNotFoundException("Tool not found"))
+                .getId();
+        Tool tool = toolRepository.getReferenceById(toolId);
 
         //Check if tool already assigned to that ToolCrib
         Optional<ToolInventory> optionalInventory = toolInventoryRepository
                 .findByToolCribAndTool(toolCrib, tool);
 
         if (optionalInventory.isPresent()) {
-            ToolInventory inventory = optionalInventory.get();
-            inventory.setAvailableQuantity(inventory.getAvailableQuantity() + request.getQuantity());
-            inventory.setTotalQuantity(inventory.getTotalQuantity() + request.getQuantity());
-            toolInventoryRepository.save(inventory);
+            inventoryReservationService.restock(toolCrib.getId(), tool.getId(), request.getQuantity());
         } else {
             ToolInventory inventory = ToolInventory.builder()
                     .tool(tool)
@@ -85,6 +99,7 @@ public class ToolInventoryServiceImpl implements ToolInventoryService {
                     .minimumThreshold(0L) // default
                     .build();
             toolInventoryRepository.save(inventory);
+            toolSuggestService.addToCrib(toolCrib.getId(), tool.getId());
         }
 
         ToolInventoryLog log = ToolInventoryLog.builder()
@@ -117,13 +132,44 @@ public class ToolInventoryServiceImpl implements ToolInventoryService {
                 .and(ToolInventorySpecification.belongsToManagerEmail(managerEmail));
 
         if (filterLowStock) {
-            spec = spec.and(ToolInventorySpecification.availableLessThanMinimumThreshold());
+            spec = spec.and(ToolInventorySpecification.isLowStock());
         }
 
         Page<ToolInventory> resultPage = toolInventoryRepository.findAll(spec, pageable);
 
         // Mapping each ToolInventory entity to ToolInventoryDTO
-        return resultPage.map(entity -> ToolInventoryDTO.builder()
+        return resultPage.map(this::toDto);
+    }
+
+    @Override
+    public CursorPage<ToolInventoryDTO> getToolInventoryForToolCrib(Long toolCribId, String cursor,
+                                                                    int size, boolean filterLowStock) {
+
+        String managerEmail = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        Specification<ToolInventory> spec = Specification.where(ToolInventorySpecification.belongsToToolCrib(toolCribId))
+                .and(ToolInventorySpecification.belongsToManagerEmail(managerEmail));
+
+        if (filterLowStock) {
+            spec = spec.and(ToolInventorySpecification.isLowStock());
+        }
+
+        //Keyset on the (unique) tool name, same order as the paged listing but without OFFSET or count
+        String lastToolName = CursorPage.decode(cursor);
+        if (lastToolName != null) {
+            spec = spec.and(ToolInventorySpecification.toolNameGreaterThan(lastToolName));
+        }
+
+        List<ToolInventory> rows = toolInventoryRepository.findBy(spec, query -> query
+                .sortBy(Sort.by("tool.name").ascending())
+                .limit(size + 1)
+                .all());
+
+        return CursorPage.of(rows, size, entity -> entity.getTool().getName(), this::toDto);
+    }
+
+    private ToolInventoryDTO toDto(ToolInventory entity) {
+        return ToolInventoryDTO.builder()
                 .toolId(entity.getTool().getId())
                 .toolName(entity.getTool().getName())
                 .totalQuantity(entity.getTotalQuantity())
@@ -131,14 +177,12 @@ public class ToolInventoryServiceImpl implements ToolInventoryService {
                 .toolCribId(entity.getToolCrib().getId())
                 .toolCribName(entity.getToolCrib().getName())
                 .minimumThreshold(entity.getMinimumThreshold())
-                .toolImageUrl(entity.getTool().getToolImageUrl())
+                .toolImageUrl(entity.getTool().listingImageUrl())
                 .fineAmount(entity.getTool().getFineAmount())
                 .brokenQuantity(entity.getBrokenQuantity())
                 .returnPeriod(entity.getTool().getReturnPeriod())
                 .toolCategory(entity.getTool().getCategory())
                 .isPerishable(entity.getTool().getIsPerishable())
-                .build());
+                .build();
     }
-
-
 }
@@ -1,9 +1,12 @@
 package com.coditas.tool.management.system.service.impl;
 
+import com.coditas.tool.management.system.constant.ExportFormat;
 import com.coditas.tool.management.system.constant.RequestStatus;
 import com.coditas.tool.management.system.constant.ReturnStatus;
 import com.coditas.tool.management.system.constant.ToolCategory;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
 import com.coditas.tool.management.system.dto.sharedResponse.SuccessResponse;
+import com.coditas.tool.management.system.dto.tool.ToolCatalogEntry;
 import com.coditas.tool.management.system.dto.tool.ToolRequestCreateDTO;
 import com.coditas.tool.management.system.dto.tool.ToolRequestItemDTO;
 import com.coditas.tool.management.system.dto.tool.ToolReturnRequestDTO;
@@ -11,10 +14,13 @@ import com.coditas.tool.management.system.dto.tool.UnreturnedToolWorkerDTO;
 import com.coditas.tool.management.system.entity.*;
 import com.coditas.tool.management.system.exception.PremiseNotFoundException;
 import com.coditas.tool.management.system.exception.ResourceNotFoundException;
-import com.coditas.tool.management.system.exception.UserNotFoundException;
 import com.coditas.tool.management.system.repository.*;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
 import com.coditas.tool.management.system.service.EmailService;
+import com.coditas.tool.management.system.service.InventoryReservationService;
+import com.coditas.tool.management.system.service.ToolCatalogService;
 import com.coditas.tool.management.system.service.ToolRequestService;
+import com.coditas.tool.management.system.service.UsageRollupService;
 import com.coditas.tool.management.system.specification.ToolRequestItemSpecifications;
 import jakarta.transaction.Transactional;
 import org.apache.coyote.BadRequestException;
@@ -22,41 +28,75 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ToolRequestServiceImpl implements ToolRequestService {
 
+    private static final List<RowExporter.Column<ToolRequestItem>> REQUEST_EXPORT_COLUMNS = List.of(
+            new RowExporter.Column<>("requestItemId", ToolRequestItem::getId),
+            new RowExporter.Column<>("requestId", item -> item.getToolRequest().getId()),
+            new RowExporter.Column<>("requestDate", item -> item.getToolRequest().getRequestDate()),
+            new RowExporter.Column<>("workerId", item -> item.getToolRequest().getWorker().getId()),
+            new RowExporter.Column<>("workerName", item -> item.getToolRequest().getWorker().getName()),
+            new RowExporter.Column<>("toolId", item -> item.getTool().getId()),
+            new RowExporter.Column<>("toolName", item -> item.getTool().getName()),
+            new RowExporter.Column<>("toolCategory", item -> item.getTool().getCategory()),
+            new RowExporter.Column<>("reqQuantity", ToolRequestItem::getReqQuantity),
+            new RowExporter.Column<>("approvalStatus", ToolRequestItem::getApprovalStatus),
+            new RowExporter.Column<>("returnStatus", ToolRequestItem::getReturnStatus),
+            new RowExporter.Column<>("returnDate", ToolRequestItem::getReturnDate),
+            new RowExporter.Column<>("retQuantity", ToolRequestItem::getRetQuantity),
+            new RowExporter.Column<>("brkQuantity", ToolRequestItem::getBrkQuantity),
+            new RowExporter.Column<>("fine", ToolRequestItem::getFine));
+
     private final ToolRequestItemRepository toolRequestItemRepository;
     private final UserRepository userRepository;
-    private final WorkstationRepository workstationRepository;
     private final ToolCribRepository toolCribRepository;
     private final ToolRequestRepository toolRequestRepository;
-    private final ToolRepository toolRepository;
+    private final ToolCatalogService toolCatalogService;
     private final ToolInventoryRepository toolInventoryRepository;
     private final EmailService emailService;
+    private final InventoryReservationService inventoryReservationService;
+    private final WorkplaceRepository workplaceRepository;
+    private final ToolUsageStatRepository toolUsageStatRepository;
+    private final UsageRollupService usageRollupService;
+    private final RowExporter rowExporter;
 
     @Autowired
     public ToolRequestServiceImpl
             (ToolRequestItemRepository toolRequestItemRepository, UserRepository userRepository,
-             WorkstationRepository workstationRepository, ToolCribRepository toolCribRepository,
-             ToolRequestRepository toolRequestRepository, ToolRepository toolRepository,
-             ToolInventoryRepository toolInventoryRepository, EmailService emailService) {
+             ToolCribRepository toolCribRepository,
+             ToolRequestRepository toolRequestRepository, ToolCatalogService toolCatalogService,
+             ToolInventoryRepository toolInventoryRepository, EmailService emailService,
+             InventoryReservationService inventoryReservationService, WorkplaceRepository workplaceRepository,
+             ToolUsageStatRepository toolUsageStatRepository, UsageRollupService usageRollupService,
+             RowExporter rowExporter) {
         this.toolRequestItemRepository = toolRequestItemRepository;
         this.userRepository = userRepository;
-        this.workstationRepository = workstationRepository;
         this.toolCribRepository = toolCribRepository;
         this.toolRequestRepository = toolRequestRepository;
-        this.toolRepository = toolRepository;
+        this.toolCatalogService = toolCatalogService;
         this.toolInventoryRepository = toolInventoryRepository;
         this.emailService = emailService;
+        this.inventoryReservationService = inventoryReservationService;
+        this.workplaceRepository = workplaceRepository;
+        this.toolUsageStatRepository = toolUsageStatRepository;
+        this.usageRollupService = usageRollupService;
+        this.rowExporter = rowExporter;
     }
 
     @Override
@@ -65,9 +105,7 @@ public class ToolRequestServiceImpl implements ToolRequestService {
             String search, List<String> fields,
             LocalDateTime startDateTime, LocalDateTime endDateTime) {
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User manager = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("Authenticated Manager not found."));
+        AuthenticatedUser manager = AuthenticatedUser.current();
 
         Pageable pageable = PageRequest.of(page, size);
 
@@ -115,8 +153,9 @@ public class ToolRequestServiceImpl implements ToolRequestService {
 
 
     @Override
+    @Transactional(rollbackOn = BadRequestException.class)
     public SuccessResponse decideSpecialRequest(Long itemId, boolean approve) throws BadRequestException {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        AuthenticatedUser currentUser = AuthenticatedUser.current();
 
         ToolRequestItem item = toolRequestItemRepository.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("ToolRequestItem not found"));
@@ -126,13 +165,13 @@ public class ToolRequestServiceImpl implements ToolRequestService {
             throw new BadRequestException("Request has already been processed");
         }
 
-        Tool tool = item.getTool();
+        //Catalog data comes from the cache, only the id of the lazy tool reference is read
+        ToolCatalogEntry tool = toolCatalogService.getById(item.getTool().getId());
         if (tool.getCategory() != ToolCategory.SPECIAL) {
             throw new BadRequestException("Only special category tools are handled here");
         }
 
-        User wpm = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Workplace Manager not found"));
+        User wpm = userRepository.getReferenceById(currentUser.getId());
 
         ToolRequest request = item.getToolRequest();
         Workplace workplace = request.getWorkplace();
@@ -140,20 +179,22 @@ public class ToolRequestServiceImpl implements ToolRequestService {
         ToolCrib toolCrib = toolCribRepository.findByWorkplace(workplace)
                 .orElseThrow(() -> new ResourceNotFoundException("ToolCrib not found"));
 
-        ToolInventory inventory = toolInventoryRepository.findByToolCribAndTool(toolCrib, tool)
-                .orElseThrow(() -> new ResourceNotFoundException("Tool not found in ToolCrib"));
+        //Only one concurrent decision can flip the row, losers see it as already processed
+        RequestStatus decision = approve ? RequestStatus.APPROVED : RequestStatus.REJECTED;
+        if (toolRequestItemRepository.claimDecision(itemId, decision) == 0) {
+            throw new BadRequestException("Request has already been processed");
+        }
+
+        if (approve) {
+            //Atomic conditional decrement, fails instead of overbooking (rolls the claim back)
+            inventoryReservationService.reserve(toolCrib.getId(), tool.getId(), item.getReqQuantity());
+        }
 
         item.setApprovedByWpm(wpm);
-        item.setApprovalStatus(approve ? RequestStatus.APPROVED : RequestStatus.REJECTED);
+        item.setApprovalStatus(decision);
 
         if (approve) {
-            long updatedQty = inventory.getAvailableQuantity() - item.getReqQuantity();
-            if (updatedQty < 0) {
-                throw new BadRequestException("Insufficient inventory for the tool");
-            }
-
-            inventory.setAvailableQuantity(updatedQty);
-            toolInventoryRepository.save(inventory);
+            usageRollupService.recordApproved(toolCrib.getId(), tool.getId(), item.getReqQuantity());
 
             if (Boolean.TRUE.equals(tool.getIsPerishable())) {
                 item.setReturnStatus(ReturnStatus.UNRETURNABLE);
@@ -181,17 +222,19 @@ public class ToolRequestServiceImpl implements ToolRequestService {
 
     @Override
     @Transactional
-    public SuccessResponse createToolRequest(String email, ToolRequestCreateDTO requestDTO) {
-        User worker = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Worker not found"));
-
-        Workstation workstation = workstationRepository.findByWorker(worker)
-                .orElseThrow(() -> new ResourceNotFoundException("Worker is not assigned to any workstation"));
+    public SuccessResponse createToolRequest(AuthenticatedUser currentUser, ToolRequestCreateDTO requestDTO) {
+        if (currentUser.getWorkstationId() == null) {
+            throw new ResourceNotFoundException("Worker is not assigned to any workstation");
+        }
 
-        Workplace workplace = workstation.getWorkplace();
+        if (currentUser.getToolCribId() == null) {
+            throw new ResourceNotFoundException("ToolCrib not found for workplace");
+        }
 
-        ToolCrib toolCrib = toolCribRepository.findByWorkplace(workplace)
-                .orElseThrow(() -> new ResourceNotFoundException("ToolCrib not found for workplace"));
+        //Premise ids were resolved with the principal, only references are needed here
+        User worker = userRepository.getReferenceById(currentUser.getId());
+        Workplace workplace = workplaceRepository.getReferenceById(currentUser.getWorkplaceId());
+        ToolCrib toolCrib = toolCribRepository.getReferenceById(currentUser.getToolCribId());
 
         LocalDateTime requestDate = LocalDateTime.now();
         LocalDateTime returnDate = requestDate.plusDays(5);
@@ -208,12 +251,29 @@ public class ToolRequestServiceImpl implements ToolRequestService {
         toolRequest = toolRequestRepository.save(toolRequest);
 
 
+        //Loading every requested tool with its crib inventory in one IN-list query
+        List<Long> toolIds = requestDTO.getItems().stream()
+                .map(ToolRequestItemDTO::getToolId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<Long, ToolInventory> inventoryByToolId = toolInventoryRepository
+                .findByToolCribAndToolIdIn(toolCrib, toolIds).stream()
+                .collect(Collectors.toMap(inventory -> inventory.getTool().getId(), Function.identity()));
+
+        List<ToolRequestItem> toolRequestItems = new ArrayList<>();
+
         for (ToolRequestItemDTO itemDTO : requestDTO.getItems()) {
-            Tool tool = toolRepository.findById(itemDTO.getToolId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Tool not found"));
+            ToolInventory inventory = inventoryByToolId.get(itemDTO.getToolId());
+            if (inventory == null) {
+                //Only hits the DB on the error path, to keep the original error messages
+                if (toolCatalogService.findById(itemDTO.getToolId()).isEmpty()) {
+                    throw new ResourceNotFoundException("Tool not found");
+                }
+                throw new ResourceNotFoundException("Tool not available in ToolCrib");
+            }
 
-            ToolInventory inventory = toolInventoryRepository.findByToolCribAndTool(toolCrib, tool)
-                    .orElseThrow(() -> new ResourceNotFoundException("Tool not available in ToolCrib"));
+            Tool tool = inventory.getTool();
 
             if (itemDTO.getReqQuantity() > inventory.getAvailableQuantity()) {
                 throw new IllegalArgumentException("Requested quantity exceeds available for tool: " + tool.getName());
@@ -231,15 +291,30 @@ public class ToolRequestServiceImpl implements ToolRequestService {
                     .fine(0L)
                     .build();
 
-            toolRequestItemRepository.save(toolRequestItem);
+            toolRequestItems.add(toolRequestItem);
 
             itemDTO.setToolName(tool.getName());
             itemDTO.setApprovalStatus(RequestStatus.PENDING);
             itemDTO.setRequestDate(requestDate);
             itemDTO.setReturnDate(returnDate);
-            itemDTO.setWorkerName(worker.getName());
+            itemDTO.setWorkerName(currentUser.getName());
         }
 
+        //Single JDBC batch for all the items of this request
+        toolRequestItemRepository.batchInsert(toolRequestItems);
+
+        //Dashboard demand totals, one upsert per distinct tool
+        toolRequestItems.stream()
+                .collect(Collectors.groupingBy(item -> item.getTool().getId(),
+                        Collectors.summingLong(ToolRequestItem::getReqQuantity)))
+                .forEach(toolUsageStatRepository::addDemand);
+
+        //Daily analytics buckets for this crib
+        toolRequestItems.stream()
+                .collect(Collectors.groupingBy(item -> item.getTool().getId()))
+                .forEach((toolId, items) -> usageRollupService.recordRequested(currentUser.getToolCribId(), toolId,
+                        items.size(), items.stream().mapToLong(ToolRequestItem::getReqQuantity).sum()));
+
         return SuccessResponse.builder()
                 .message("Tool Request Successfully Raised.")
                 .data(toolRequest)
@@ -249,16 +324,33 @@ public class ToolRequestServiceImpl implements ToolRequestService {
     @Override
     public Page<ToolRequestItemDTO> getToolRequestsByWorker(String toolName, String approvalStatus, int page, int size) {
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        User worker = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Worker not found"));
+        AuthenticatedUser worker = AuthenticatedUser.current();
 
         Pageable pageable = PageRequest.of(page, size);
 
+        Specification<ToolRequestItem> spec = workerRequestsSpec(worker, toolName, approvalStatus);
+
+        Page<ToolRequestItem> requestItems = toolRequestItemRepository.findAll(spec, pageable);
+
+        return requestItems.map(item -> toWorkerRequestItemDTO(item, worker));
+    }
+
+    @Override
+    public CursorPage<ToolRequestItemDTO> getToolRequestsByWorker(String toolName, String approvalStatus,
+                                                                  String cursor, int size) {
+
+        AuthenticatedUser worker = AuthenticatedUser.current();
+
+        Specification<ToolRequestItem> spec = workerRequestsSpec(worker, toolName, approvalStatus);
+
+        return findRequestItemsByCursor(spec, cursor, size, item -> toWorkerRequestItemDTO(item, worker));
+    }
+
+    private Specification<ToolRequestItem> workerRequestsSpec(AuthenticatedUser worker, String toolName,
+                                                              String approvalStatus) {
         Specification<ToolRequestItem> spec = Specification.where(
                 (root, query, cb) 
-                        -> cb.equal(root.get("toolRequest").get("worker"), worker)
+                        -> cb.equal(root.get("toolRequest").get("worker").get("id"), worker.getId())
         );
 
         if (toolName != null && !toolName.isBlank()) {
@@ -269,9 +361,11 @@ public class ToolRequestServiceImpl implements ToolRequestService {
             spec = spec.and((root, query, cb) -> cb.equal(root.get("approvalStatus"), approvalStatus));
         }
 
-        Page<ToolRequestItem> requestItems = toolRequestItemRepository.findAll(spec, pageable);
+        return spec;
+    }
 
-        return requestItems.map(item -> ToolRequestItemDTO.builder()
+    private ToolRequestItemDTO toWorkerRequestItemDTO(ToolRequestItem item, AuthenticatedUser worker) {
+        return ToolRequestItemDTO.builder()
                 .requestItemId(item.getId())
                 .toolId(item.getTool().getId())
                 .toolName(item.getTool().getName())
@@ -285,12 +379,13 @@ public class ToolRequestServiceImpl implements ToolRequestService {
                 .toolCategory(item.getTool().getCategory())
                 .workerName(worker.getName())
                 .workerId(worker.getId())
-                .build());
+                .build();
     }
 
     @Override
+    @Transactional(rollbackOn = BadRequestException.class)
     public SuccessResponse decideNormalToolRequest(Long itemId, boolean approve) throws BadRequestException {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        AuthenticatedUser currentUser = AuthenticatedUser.current();
 
         ToolRequestItem item = toolRequestItemRepository.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("ToolRequestItem not found"));
@@ -300,15 +395,14 @@ public class ToolRequestServiceImpl implements ToolRequestService {
             throw new BadRequestException("Request has already been processed");
         }
 
-        Tool tool = item.getTool();
+        ToolCatalogEntry tool = toolCatalogService.getById(item.getTool().getId());
 
         // Only NORMAL tools allowed
         if (tool.getCategory() != ToolCategory.NORMAL) {
             throw new BadRequestException("Only NORMAL category tools can be handled by ToolCrib Manager.");
         }
 
-        User cribManager = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated ToolCrib Manager not found"));
+        User cribManager = userRepository.getReferenceById(currentUser.getId());
 
         ToolRequest request = item.getToolRequest();
         Workplace workplace = request.getWorkplace();
@@ -316,20 +410,22 @@ public class ToolRequestServiceImpl implements ToolRequestService {
         ToolCrib toolCrib = toolCribRepository.findByWorkplace(workplace)
                 .orElseThrow(() -> new ResourceNotFoundException("ToolCrib not found for the workplace"));
 
-        ToolInventory inventory = toolInventoryRepository.findByToolCribAndTool(toolCrib, tool)
-                .orElseThrow(() -> new ResourceNotFoundException("Tool not found in ToolCrib"));
+        //Only one concurrent decision can flip the row, losers see it as already processed
+        RequestStatus decision = approve ? RequestStatus.APPROVED : RequestStatus.REJECTED;
+        if (toolRequestItemRepository.claimDecision(itemId, decision) == 0) {
+            throw new BadRequestException("Request has already been processed");
+        }
+
+        if (approve) {
+            //Atomic conditional decrement, fails instead of overbooking (rolls the claim back)
+            inventoryReservationService.reserve(toolCrib.getId(), tool.getId(), item.getReqQuantity());
+        }
 
         item.setApprovedByCrib(cribManager);
-        item.setApprovalStatus(approve ? RequestStatus.APPROVED : RequestStatus.REJECTED);
+        item.setApprovalStatus(decision);
 
         if (approve) {
-            long updatedQty = inventory.getAvailableQuantity() - item.getReqQuantity();
-            if (updatedQty < 0) {
-                throw new BadRequestException("Insufficient quantity available in ToolCrib");
-            }
-
-            inventory.setAvailableQuantity(updatedQty);
-            toolInventoryRepository.save(inventory);
+            usageRollupService.recordApproved(toolCrib.getId(), tool.getId(), item.getReqQuantity());
 
             if (Boolean.TRUE.equals(tool.getIsPerishable())) {
                 item.setReturnStatus(ReturnStatus.UNRETURNABLE);
@@ -362,19 +458,58 @@ public class ToolRequestServiceImpl implements ToolRequestService {
             List<String> fields,
             LocalDateTime startDateTime, LocalDateTime endDateTime) {
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User cribManager = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("Authenticated ToolCrib Manager not found."));
-
         Pageable pageable = PageRequest.of(page, size);
 
-        ToolCrib toolCrib = toolCribRepository.findByToolCribManagerEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("No ToolCrib found for this manager"));
+        Specification<ToolRequestItem> spec = cribManagerRequestsSpec(search, fields, startDateTime, endDateTime);
 
-        Workplace workplace = toolCrib.getWorkplace();
+        Page<ToolRequestItem> itemsPage = toolRequestItemRepository.findAll(spec, pageable);
+
+        return itemsPage.map(this::toCribManagerRequestItemDTO);
+    }
+
+    @Override
+    public CursorPage<ToolRequestItemDTO> getAllToolRequestsForCribManager(
+            String cursor, int size,
+            String search,
+            List<String> fields,
+            LocalDateTime startDateTime, LocalDateTime endDateTime) {
+
+        Specification<ToolRequestItem> spec = cribManagerRequestsSpec(search, fields, startDateTime, endDateTime);
+
+        return findRequestItemsByCursor(spec, cursor, size, this::toCribManagerRequestItemDTO);
+    }
+
+    @Override
+    @Transactional
+    public void exportToolRequestsForCribManager(
+            ExportFormat format,
+            String search,
+            List<String> fields,
+            LocalDateTime startDateTime, LocalDateTime endDateTime,
+            OutputStream out) throws IOException {
+
+        Specification<ToolRequestItem> spec = cribManagerRequestsSpec(search, fields, startDateTime, endDateTime);
+
+        //Forward-only cursor over the whole result, rows are written as they arrive
+        try (Stream<ToolRequestItem> rows = toolRequestItemRepository.findBy(spec, query -> query
+                .project("tool", "toolRequest", "toolRequest.worker")
+                .sortBy(Sort.by("id").descending())
+                .stream())) {
+            rowExporter.write(rows, format, REQUEST_EXPORT_COLUMNS, out);
+        }
+    }
+
+    private Specification<ToolRequestItem> cribManagerRequestsSpec(String search, List<String> fields,
+                                                                   LocalDateTime startDateTime,
+                                                                   LocalDateTime endDateTime) {
+        AuthenticatedUser cribManager = AuthenticatedUser.current();
+
+        if (cribManager.getToolCribId() == null) {
+            throw new ResourceNotFoundException("No ToolCrib found for this manager");
+        }
 
         Specification<ToolRequestItem> spec = Specification
-                .where(ToolRequestItemSpecifications.hasWorkplace(workplace.getId()));
+                .where(ToolRequestItemSpecifications.hasWorkplace(cribManager.getWorkplaceId()));
 
         if (search != null && !search.isBlank() && fields != null && !fields.isEmpty()) {
             for (String field : fields) {
@@ -399,9 +534,11 @@ public class ToolRequestServiceImpl implements ToolRequestService {
             spec = spec.and(ToolRequestItemSpecifications.requestDateBefore(endDateTime));
         }
 
-        Page<ToolRequestItem> itemsPage = toolRequestItemRepository.findAll(spec, pageable);
+        return spec;
+    }
 
-        return itemsPage.map(item -> ToolRequestItemDTO.builder()
+    private ToolRequestItemDTO toCribManagerRequestItemDTO(ToolRequestItem item) {
+        return ToolRequestItemDTO.builder()
                 .toolId(item.getTool().getId())
                 .requestItemId(item.getId())
                 .toolName(item.getTool().getName())
@@ -414,10 +551,38 @@ public class ToolRequestServiceImpl implements ToolRequestService {
                 .isPerishable(item.getTool().getIsPerishable())
                 .toolCategory(item.getTool().getCategory())
                 .returnStatus(item.getReturnStatus())
-                .build());
+                .build();
+    }
+
+    //Keyset pagination on the item id (newest first): seeks past the cursor instead of OFFSET, and
+    //fetches size + 1 rows to know if there is a next page, so no count query is needed
+    private CursorPage<ToolRequestItemDTO> findRequestItemsByCursor(Specification<ToolRequestItem> spec,
+                                                                    String cursor, int size,
+                                                                    Function<ToolRequestItem, ToolRequestItemDTO> mapper) {
+        String lastId = CursorPage.decode(cursor);
+        if (lastId != null) {
+            spec = spec.and(ToolRequestItemSpecifications.idLessThan(parseCursorId(lastId)));
+        }
+
+        List<ToolRequestItem> rows = toolRequestItemRepository.findBy(spec, query -> query
+                .project("tool", "toolRequest", "toolRequest.worker")
+                .sortBy(Sort.by("id").descending())
+                .limit(size + 1)
+                .all());
+
+        return CursorPage.of(rows, size, item -> String.valueOf(item.getId()), mapper);
+    }
+
+    private long parseCursorId(String lastId) {
+        try {
+            return Long.parseLong(lastId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
     }
 
     @Override
+    @Transactional
     public SuccessResponse returnTool(ToolReturnRequestDTO dto) throws BadRequestException {
         ToolRequestItem item = toolRequestItemRepository.findById(dto.getRequestItemId())
                 .orElseThrow(() -> new PremiseNotFoundException("ToolRequestItem not found"));
@@ -426,7 +591,9 @@ public class ToolRequestServiceImpl implements ToolRequestService {
             throw new IllegalArgumentException("Tool already returned.");
         }
 
-        if (Boolean.TRUE.equals(item.getTool().getIsPerishable())) {
+        ToolCatalogEntry tool = toolCatalogService.getById(item.getTool().getId());
+
+        if (Boolean.TRUE.equals(tool.getIsPerishable())) {
             if (!ReturnStatus.UNRETURNABLE.equals(item.getReturnStatus())) {
                 item.setReturnStatus(ReturnStatus.UNRETURNABLE);
                 toolRequestItemRepository.save(item);
@@ -448,16 +615,22 @@ public class ToolRequestServiceImpl implements ToolRequestService {
         long brokenQty = expectedQty - returnedQty;
         long fine = 0;
 
-        LocalDateTime expectedReturnDate = item.getToolRequest().getReturnDate();
+        //Due date is the per-item one set at approval, the same column the overdue sweeper accrues fines from
+        LocalDateTime expectedReturnDate = item.getReturnDate();
         LocalDateTime actualReturnDate = dto.getActualReturnDate();
 
         if (actualReturnDate.isAfter(expectedReturnDate)) {
             long daysLate = ChronoUnit.DAYS.between(expectedReturnDate.toLocalDate(), actualReturnDate.toLocalDate());
-            fine += daysLate * item.getTool().getFineAmount();
+            fine += daysLate * tool.getFineAmount();
         }
 
         if (brokenQty > 0) {
-            fine += brokenQty * item.getTool().getFineAmount();
+            fine += brokenQty * tool.getFineAmount();
+        }
+
+        //Guards against a concurrent return releasing the same stock twice
+        if (toolRequestItemRepository.claimReturn(item.getId()) == 0) {
+            throw new IllegalArgumentException("Tool already returned.");
         }
 
         item.setRetQuantity(returnedQty);
@@ -471,20 +644,12 @@ public class ToolRequestServiceImpl implements ToolRequestService {
                 .orElseThrow(() -> new ResourceNotFoundException("ToolCrib not found for workplace ID: "
                         + item.getToolRequest().getWorkplace().getId()));
 
-        ToolInventory inventory = toolInventoryRepository
-                .findByToolCribAndTool(toolCrib, item.getTool())
-                .orElseThrow(() -> new IllegalStateException("Inventory not found"));
-
-        Long existingBrokenQty = inventory.getBrokenQuantity() != null ? inventory.getBrokenQuantity() : 0L;
-        Long existingTotalQty = inventory.getTotalQuantity() != null ? inventory.getTotalQuantity() : 0L;
-        Long existingAvailableQty = inventory.getAvailableQuantity() != null ? inventory.getAvailableQuantity() : 0L;
-
-        inventory.setBrokenQuantity(existingBrokenQty + brokenQty);
-        inventory.setAvailableQuantity(existingAvailableQty + returnedQty);
-        toolInventoryRepository.save(inventory);
+        //Returned quantity goes back to stock, the rest is written off as broken
+        inventoryReservationService.release(toolCrib.getId(), tool.getId(), returnedQty);
+        inventoryReservationService.commit(toolCrib.getId(), tool.getId(), brokenQty);
+        usageRollupService.recordReturned(toolCrib.getId(), tool.getId(), returnedQty, brokenQty, fine);
 
         User user = item.getToolRequest().getWorker();
-        Tool tool = item.getTool();
 
         if (fine > 0) {
             String subject = "Hello Worker " + user.getName() + "! Fine Incurred for Tool Return";
@@ -534,11 +699,12 @@ public class ToolRequestServiceImpl implements ToolRequestService {
     @Override
     public SuccessResponse getUnreturnedToolWorkers() {
         // Get ToolCrib managed by this manager
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        ToolCrib toolCrib = toolCribRepository.findByToolCribManagerEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("ToolCrib not found"));
+        AuthenticatedUser cribManager = AuthenticatedUser.current();
+        if (cribManager.getToolCribId() == null) {
+            throw new ResourceNotFoundException("ToolCrib not found");
+        }
 
-        Long workplaceId = toolCrib.getWorkplace().getId();
+        Long workplaceId = cribManager.getWorkplaceId();
         List<ToolRequestItem> unreturnedItems = toolRequestItemRepository
                 .findUnreturnedItemsByWorkplaceId(workplaceId);
 
@@ -6,8 +6,10 @@ import com.coditas.tool.management.system.dto.tool.ToolDTO;
 import com.coditas.tool.management.system.entity.Tool;
 import com.coditas.tool.management.system.exception.PremiseNotFoundException;
 import com.coditas.tool.management.system.repository.ToolRepository;
-import com.coditas.tool.management.system.service.S3Service;
+import com.coditas.tool.management.system.service.ImageService;
+import com.coditas.tool.management.system.service.ToolCatalogService;
 import com.coditas.tool.management.system.service.ToolService;
+import com.coditas.tool.management.system.service.ToolSuggestService;
 import com.coditas.tool.management.system.specification.ToolSpecification;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,13 +29,18 @@ public class ToolServiceImpl implements ToolService {
 
     private final ToolRepository toolRepository;
     private final ModelMapper modelMapper;
-    private final S3Service s3Service;
+    private final ImageService imageService;
+    private final ToolCatalogService toolCatalogService;
+    private final ToolSuggestService toolSuggestService;
 
     @Autowired
-    public ToolServiceImpl(ToolRepository toolRepository, ModelMapper modelMapper, S3Service s3Service) {
+    public ToolServiceImpl(ToolRepository toolRepository, ModelMapper modelMapper, ImageService imageService,
+                           ToolCatalogService toolCatalogService, ToolSuggestService toolSuggestService) {
         this.toolRepository = toolRepository;
         this.modelMapper = modelMapper;
-        this.s3Service = s3Service;
+        this.imageService = imageService;
+        this.toolCatalogService = toolCatalogService;
+        this.toolSuggestService = toolSuggestService;
     }
 
     @Override
@@ -42,9 +49,9 @@ public class ToolServiceImpl implements ToolService {
         mapped.setId(null);
 
         if (toolImage != null && !toolImage.isEmpty()) {
-            String key = "tools/" + toolDTO.getName() + "/" + toolImage.getOriginalFilename();
-            Map<String, String> response = s3Service.uploadPhoto(toolImage, key);
-            mapped.setToolImageUrl(response.get("Link")); // Ensure key is "Link" in response
+            Map<String, String> response = imageService.storeImage(toolImage, "tools");
+            mapped.setToolImageUrl(response.get("Link"));
+            mapped.setToolThumbnailUrl(response.get("ThumbnailLink"));
         }
 
         if(mapped.getIsPerishable()){
@@ -52,6 +59,7 @@ public class ToolServiceImpl implements ToolService {
         }
 
         toolRepository.save(mapped);
+        toolCatalogService.evict(mapped.getId());
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Tool saved successfully.")
@@ -75,13 +83,15 @@ public class ToolServiceImpl implements ToolService {
 
         // Image update logic
         if (toolImage != null && !toolImage.isEmpty()) {
-            String key = "tools/" + toolDTO.getName() + "/" + toolImage.getOriginalFilename();
-            Map<String, String> response = s3Service.uploadPhoto(toolImage, key);
-            existingTool.setToolImageUrl(response.get("Link")); // Ensure 'Link' key is correct
+            Map<String, String> response = imageService.storeImage(toolImage, "tools");
+            existingTool.setToolImageUrl(response.get("Link"));
+            existingTool.setToolThumbnailUrl(response.get("ThumbnailLink"));
         }
         //else keep previous image by not changing the existing URL
 
         Tool saved = toolRepository.save(existingTool);
+        toolCatalogService.evict(saved.getId());
+        toolSuggestService.refreshTool(saved.getId());
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -97,6 +107,8 @@ public class ToolServiceImpl implements ToolService {
         Tool tool = toolRepository.findById(id).orElseThrow(() -> new PremiseNotFoundException("Tool Not Found."));
         // Deleted the tool
         toolRepository.delete(tool);
+        toolCatalogService.evict(tool.getId());
+        toolSuggestService.refreshTool(tool.getId());
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -0,0 +1,198 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.dto.tool.ToolCatalogEntry;
+import com.coditas.tool.management.system.dto.tool.ToolSuggestionDTO;
+import com.coditas.tool.management.system.exception.UserNotFoundException;
+import com.coditas.tool.management.system.repository.ToolInventoryRepository;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
+import com.coditas.tool.management.system.service.ToolCatalogService;
+import com.coditas.tool.management.system.service.ToolSuggestService;
+import com.coditas.tool.management.system.specification.TextSearch;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Per-crib typeahead served from memory. A crib's index is loaded with one query on first use and then
+//patched per tool (assignment to the crib, rename/image change, delete) after the write commits,
+//so keystrokes never reach the database.
+@Service
+public class ToolSuggestServiceImpl implements ToolSuggestService {
+
+    private static final int MAX_LIMIT = 20;
+
+    private final ToolInventoryRepository toolInventoryRepository;
+    private final ToolCatalogService toolCatalogService;
+    private final Map<Long, CribIndex> cribs = new ConcurrentHashMap<>();
+    private final Timer lookupTimer;
+    private final Timer loadTimer;
+
+    @Autowired
+    public ToolSuggestServiceImpl(ToolInventoryRepository toolInventoryRepository,
+                                  ToolCatalogService toolCatalogService, MeterRegistry meterRegistry) {
+        this.toolInventoryRepository = toolInventoryRepository;
+        this.toolCatalogService = toolCatalogService;
+        this.lookupTimer = meterRegistry.timer("tool.suggest.lookup");
+        this.loadTimer = meterRegistry.timer("tool.suggest.load");
+        meterRegistry.gaugeMapSize("tool.suggest.cribs", List.of(), cribs);
+    }
+
+    @Override
+    public List<ToolSuggestionDTO> suggest(AuthenticatedUser currentUser, String prefix, int limit) {
+        if (currentUser.getToolCribId() == null) {
+            throw new UserNotFoundException("Tool crib not found for workplace");
+        }
+
+        String normalized = TextSearch.normalize(prefix);
+        if (normalized == null) {
+            return List.of();
+        }
+
+        CribIndex index = cribs.computeIfAbsent(currentUser.getToolCribId(), this::load);
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return lookupTimer.record(() -> index.find(normalized, max));
+    }
+
+    //A tool was assigned to the crib for the first time
+    @Override
+    public void addToCrib(Long toolCribId, Long toolId) {
+        afterCommit(() -> toolCatalogService.findById(toolId).ifPresent(tool ->
+                cribs.computeIfPresent(toolCribId, (id, index) -> index.with(suggestion(tool)))));
+    }
+
+    //A tool was renamed, re-imaged or deleted; only cribs that hold it are rebuilt
+    @Override
+    public void refreshTool(Long toolId) {
+        afterCommit(() -> {
+            Optional<ToolCatalogEntry> tool = toolCatalogService.findById(toolId);
+            cribs.replaceAll((id, index) -> {
+                if (!index.contains(toolId)) {
+                    return index;
+                }
+                return tool.map(entry -> index.with(suggestion(entry))).orElseGet(() -> index.without(toolId));
+            });
+        });
+    }
+
+    private CribIndex load(Long toolCribId) {
+        return loadTimer.record(() -> CribIndex.of(toolInventoryRepository.findSuggestionsByToolCribId(toolCribId)));
+    }
+
+    private ToolSuggestionDTO suggestion(ToolCatalogEntry tool) {
+        return new ToolSuggestionDTO(tool.getId(), tool.getName(), tool.getCategory(), tool.listingImageUrl());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    //Immutable sorted arrays: whole-name keys first, then keys starting at every later word
+    //("dri" also finds "Power Drill"). A prefix is a contiguous range found by binary search.
+    private static final class CribIndex {
+
+        private final List<ToolSuggestionDTO> tools;
+        private final String[] nameKeys;
+        private final ToolSuggestionDTO[] byName;
+        private final String[] wordKeys;
+        private final ToolSuggestionDTO[] byWord;
+
+        private CribIndex(List<ToolSuggestionDTO> tools) {
+            this.tools = tools;
+
+            List<Map.Entry<String, ToolSuggestionDTO>> names = new ArrayList<>();
+            List<Map.Entry<String, ToolSuggestionDTO>> words = new ArrayList<>();
+            for (ToolSuggestionDTO tool : tools) {
+                String key = tool.getToolName().toLowerCase();
+                names.add(Map.entry(key, tool));
+                for (int i = 1; i < key.length(); i++) {
+                    if (!Character.isLetterOrDigit(key.charAt(i - 1)) && Character.isLetterOrDigit(key.charAt(i))) {
+                        words.add(Map.entry(key.substring(i), tool));
+                    }
+                }
+            }
+            names.sort(Map.Entry.comparingByKey());
+            words.sort(Map.Entry.comparingByKey());
+
+            this.nameKeys = names.stream().map(Map.Entry::getKey).toArray(String[]::new);
+            this.byName = names.stream().map(Map.Entry::getValue).toArray(ToolSuggestionDTO[]::new);
+            this.wordKeys = words.stream().map(Map.Entry::getKey).toArray(String[]::new);
+            this.byWord = words.stream().map(Map.Entry::getValue).toArray(ToolSuggestionDTO[]::new);
+        }
+
+        static CribIndex of(List<ToolSuggestionDTO> tools) {
+            return new CribIndex(List.copyOf(tools));
+        }
+
+        boolean contains(Long toolId) {
+            return tools.stream().anyMatch(tool -> tool.getToolId().equals(toolId));
+        }
+
+        CribIndex with(ToolSuggestionDTO tool) {
+            List<ToolSuggestionDTO> updated = new ArrayList<>(tools.size() + 1);
+            for (ToolSuggestionDTO existing : tools) {
+                if (!existing.getToolId().equals(tool.getToolId())) {
+                    updated.add(existing);
+                }
+            }
+            updated.add(tool);
+            return of(updated);
+        }
+
+        CribIndex without(Long toolId) {
+            return of(tools.stream().filter(tool -> !tool.getToolId().equals(toolId)).toList());
+        }
+
+        List<ToolSuggestionDTO> find(String prefix, int limit) {
+            Map<Long, ToolSuggestionDTO> found = new LinkedHashMap<>();
+            collect(nameKeys, byName, prefix, limit, found);
+            collect(wordKeys, byWord, prefix, limit, found);
+            List<ToolSuggestionDTO> result = new ArrayList<>(found.values());
+            //Whole-name matches keep their place at the front, each group is already alphabetical
+            result.sort(Comparator.comparing(tool -> !tool.getToolName().toLowerCase().startsWith(prefix)));
+            return result;
+        }
+
+        private static void collect(String[] keys, ToolSuggestionDTO[] values, String prefix, int limit,
+                                    Map<Long, ToolSuggestionDTO> found) {
+            for (int i = lowerBound(keys, prefix); i < keys.length && found.size() < limit; i++) {
+                if (!keys[i].startsWith(prefix)) {
+                    return;
+                }
+                found.putIfAbsent(values[i].getToolId(), values[i]);
+            }
+        }
+
+        private static int lowerBound(String[] keys, String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.config.AsyncExecutorConfig;
+import com.coditas.tool.management.system.repository.ToolUsageDailyRepository;
+import com.coditas.tool.management.system.repository.ToolUsageStatRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+//Incremental updates keep tool_usage_stats current; this full recompute backfills it on first start
+//and periodically corrects drift. Increments block on the table lock for the short recompute.
+//The daily rollup is backfilled exactly once, guarded by a marker row, and before the web server accepts
+//requests, so no live increment can be counted a second time by it. Its buckets are append-only after that.
+@Component
+public class ToolUsageStatsMaintainer implements SmartInitializingSingleton {
+
+    private final ToolUsageStatRepository toolUsageStatRepository;
+    private final ToolUsageDailyRepository toolUsageDailyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ToolUsageStatsMaintainer(ToolUsageStatRepository toolUsageStatRepository,
+                                    ToolUsageDailyRepository toolUsageDailyRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.toolUsageStatRepository = toolUsageStatRepository;
+        this.toolUsageDailyRepository = toolUsageDailyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    //All singletons, including the flyway migrator that creates the marker table, exist at this point
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (toolUsageDailyRepository.claimBackfill() == 1) {
+                toolUsageDailyRepository.backfill();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async(AsyncExecutorConfig.REPORTING_EXECUTOR)
+    @Transactional
+    public void backfill() {
+        if (toolUsageStatRepository.count() == 0) {
+            toolUsageStatRepository.lockForRebuild();
+            toolUsageStatRepository.rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${report.aggregates.rebuild-cron:0 30 2 * * *}")
+    @Transactional
+    public void rebuild() {
+        toolUsageStatRepository.lockForRebuild();
+        toolUsageStatRepository.rebuild();
+    }
+}
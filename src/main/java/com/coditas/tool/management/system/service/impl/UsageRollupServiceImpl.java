@@ -0,0 +1,36 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.repository.ToolUsageDailyRepository;
+import com.coditas.tool.management.system.service.UsageRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+//Writes deltas into today's (crib, tool) bucket; runs inside the caller's transaction so the
+//rollup only moves when the request change itself commits.
+@Service
+public class UsageRollupServiceImpl implements UsageRollupService {
+
+    private final ToolUsageDailyRepository toolUsageDailyRepository;
+
+    @Autowired
+    public UsageRollupServiceImpl(ToolUsageDailyRepository toolUsageDailyRepository) {
+        this.toolUsageDailyRepository = toolUsageDailyRepository;
+    }
+
+    @Override
+    public void recordRequested(Long toolCribId, Long toolId, long items, long quantity) {
+        toolUsageDailyRepository.add(LocalDate.now(), toolCribId, toolId, items, quantity, 0, 0, 0, 0);
+    }
+
+    @Override
+    public void recordApproved(Long toolCribId, Long toolId, long quantity) {
+        toolUsageDailyRepository.add(LocalDate.now(), toolCribId, toolId, 0, 0, quantity, 0, 0, 0);
+    }
+
+    @Override
+    public void recordReturned(Long toolCribId, Long toolId, long returned, long broken, long fine) {
+        toolUsageDailyRepository.add(LocalDate.now(), toolCribId, toolId, 0, 0, 0, returned, broken, fine);
+    }
+}
@@ -5,8 +5,10 @@ import com.coditas.tool.management.system.dto.tool.UnreturnedToolWorkerDTO;
 import com.coditas.tool.management.system.dto.user.*;
 import com.coditas.tool.management.system.entity.*;
 import com.coditas.tool.management.system.repository.*;
+import com.coditas.tool.management.system.security.AuthenticatedUserCache;
 import com.coditas.tool.management.system.security.JwtHelper;
-import com.coditas.tool.management.system.service.S3Service;
+import com.coditas.tool.management.system.service.ImageService;
+import com.coditas.tool.management.system.specification.TextSearch;
 import com.coditas.tool.management.system.specification.UserSpecification;
 import com.coditas.tool.management.system.exception.UserEmailAlreadyExistsException;
 import com.coditas.tool.management.system.exception.UserNotFoundException;
@@ -18,6 +20,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
@@ -38,27 +41,33 @@ public class UserServiceImpl implements UserService {
     private final RoleRepository roleRepository;
     private final EmailService emailService;
     private final FacilityRepository facilityRepository;
-    private final S3Service s3Service;
+    private final ImageService imageService;
     private final WorkplaceRepository workplaceRepository;
     private final WorkstationRepository workstationRepository;
     private final JwtHelper jwtHelper;
     private final ToolCribRepository toolCribRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final UserHierarchyViewRepository userHierarchyViewRepository;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository, ModelMapper modelMapper, RoleRepository roleRepository,
-                           EmailService emailService, FacilityRepository facilityRepository, S3Service s3Service,
+                           EmailService emailService, FacilityRepository facilityRepository, ImageService imageService,
                            WorkplaceRepository workplaceRepository, WorkstationRepository workstationRepository,
-                           JwtHelper jwtHelper, ToolCribRepository toolCribRepository) {
+                           JwtHelper jwtHelper, ToolCribRepository toolCribRepository,
+                           AuthenticatedUserCache authenticatedUserCache,
+                           UserHierarchyViewRepository userHierarchyViewRepository) {
         this.userRepository = userRepository;
         this.modelMapper = modelMapper;
         this.roleRepository = roleRepository;
         this.emailService = emailService;
         this.facilityRepository = facilityRepository;
-        this.s3Service = s3Service;
+        this.imageService = imageService;
         this.workplaceRepository = workplaceRepository;
         this.workstationRepository = workstationRepository;
         this.jwtHelper = jwtHelper;
         this.toolCribRepository = toolCribRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.userHierarchyViewRepository = userHierarchyViewRepository;
     }
 
     @Override
@@ -94,13 +103,21 @@ public class UserServiceImpl implements UserService {
 
         //Upload profile photo if given
         if (profilePhoto != null && !profilePhoto.isEmpty()) {
-            String key = "profiles/" + (email != null ? email : user.getEmail()) + "/" + profilePhoto.getOriginalFilename();
-            response = s3Service.uploadPhoto(profilePhoto, key);
+            response = imageService.storeImage(profilePhoto, "profiles");
             user.setProfileImageUrl(response.get("Link"));
         }
 
         userRepository.save(user);
 
+        //Credential changes invalidate existing tokens, other changes only refresh the cached principal
+        boolean credentialsChanged = (email != null && !email.trim().isEmpty())
+                || (password != null && !password.trim().isEmpty());
+        if (credentialsChanged) {
+            authenticatedUserCache.revoke(currentEmail);
+        } else {
+            authenticatedUserCache.evict(currentEmail);
+        }
+
         //Send confirmation success email
         String subject = "Greetings User " + user.getName() + " ! Here are your Updated Details.";
         StringBuilder bodyBuilder = new StringBuilder("Your updated details:\n");
@@ -156,6 +173,8 @@ public class UserServiceImpl implements UserService {
     public SuccessResponse updateFacilityManager(long id, MgrUpdateReqDTO req) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("No facility manager found with provided details."));
+        //Tokens issued for the old details must not keep working
+        authenticatedUserCache.revoke(user.getEmail());
         user.setName(req.getName());
         user.setEmail(req.getEmail());
         userRepository.save(user);
@@ -175,6 +194,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException("No facility manager found with provided details."));
         user.setActive(false);
         userRepository.save(user);
+        authenticatedUserCache.revoke(user.getEmail());
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Successfully deleted the Facility Manager.")
@@ -184,27 +204,12 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public SuccessResponse getAvailableFacilityManagers(String search, List<String> fields) {
-        List<User> facilityManagers = userRepository.findByRoleName("ROLE_FACILITYMANAGER");
-
-        List<String> collected = facilityManagers.stream()
-                .filter(user -> facilityRepository.findByFacilityManager(user).isEmpty())
-                .filter(user -> {
-                    if (search == null || fields == null || fields.isEmpty()) return true;
+        boolean filter = search != null && fields != null && !fields.isEmpty();
 
-                    String keyword = search.toLowerCase();
-                    boolean matches = false;
-
-                    if (fields.contains("name") && user.getName() != null) {
-                        matches |= user.getName().toLowerCase().contains(keyword);
-                    }
-                    if (fields.contains("email") && user.getEmail() != null) {
-                        matches |= user.getEmail().toLowerCase().contains(keyword);
-                    }
-
-                    return matches;
-                })
-                .map(User::getEmail)
-                .collect(Collectors.toList());
+        //Single anti-join query, search included
+        List<String> collected = userRepository.findAvailableFacilityManagerEmails(filter, likePattern(search),
+                filter && fields.contains("name"),
+                filter && fields.contains("email"));
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -217,44 +222,14 @@ public class UserServiceImpl implements UserService {
     @Override
     public Page<UserListDTO> getFacilityManagers(int page, int size, String search, List<String> fields) {
         Pageable pageable = PageRequest.of(page, size);
-
-        //Dynamic Query
-        Specification<User> spec = Specification
-                .where(UserSpecification.hasRole("ROLE_FACILITYMANAGER"))
-                .and(UserSpecification.isActive())
-                .and(UserSpecification.searchByFields(search, fields));
-
-        Page<User> usersPage = userRepository.findAll(spec, Pageable.unpaged());
-        //mapping for DTO
-        List<UserListDTO> fullDtoList = usersPage.getContent().stream()
-                .map(user -> {
-                    UserListDTO dto = modelMapper.map(user, UserListDTO.class);
-                    Facility facility = facilityRepository.findByFacilityManager(user).orElse(null);
-                    if (facility != null) {
-                        dto.setFacilityName(facility.getName());
-                        dto.setFacilityAddress(facility.getAddress());
-                    }
-                    return dto;
-                })
-                .toList();
-
-        List<UserListDTO> filteredList = fullDtoList.stream()
-                .filter(dto -> {
-                    if (fields != null && fields.contains("facilityName") && search != null) {
-                        return dto.getFacilityName() != null &&
-                                dto.getFacilityName().toLowerCase().contains(search.toLowerCase());
-                    }
-                    return true;
-                })
-                .toList();
-
-        //Manual pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), filteredList.size());
-        List<UserListDTO> pagedList = start > filteredList.size() ? List.of() : filteredList.subList(start, end);
-
-        //returning correct size
-        return new PageImpl<>(pagedList, pageable, filteredList.size());
+        boolean filter = search != null && fields != null && !fields.isEmpty();
+
+        //Join, search and paging all happen in the database
+        return userRepository.findFacilityManagerList(likePattern(search),
+                filter && fields.contains("name"),
+                filter && fields.contains("email"),
+                filter && fields.contains("facilityName"),
+                pageable);
     }
 
 
@@ -296,6 +271,8 @@ public class UserServiceImpl implements UserService {
     public SuccessResponse updateWorkplaceManager(long id, MgrUpdateReqDTO req) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("No Workplace manager found with provided details."));
+        //Tokens issued for the old details must not keep working
+        authenticatedUserCache.revoke(user.getEmail());
         user.setName(req.getName());
         user.setEmail(req.getEmail());
         userRepository.save(user);
@@ -315,6 +292,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException("No workplace manager found with provided details."));
         user.setActive(false);
         userRepository.save(user);
+        authenticatedUserCache.revoke(user.getEmail());
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Successfully deleted the workplace Manager.")
@@ -325,72 +303,30 @@ public class UserServiceImpl implements UserService {
     @Override
     public Page<WrkMngrListDTO> getWorkplaceManagers(int page, int size, String search, List<String> fields) {
         Pageable pageable = PageRequest.of(page, size);
+        boolean filter = search != null && fields != null && !fields.isEmpty();
+
+        //Join, search and paging all happen in the database
+        return userRepository.findWorkplaceManagerList(likePattern(search),
+                filter && fields.contains("name"),
+                filter && fields.contains("email"),
+                filter && fields.contains("workplaceName"),
+                pageable);
+    }
 
-        //Filtering
-        Specification<User> spec = Specification
-                .where(UserSpecification.hasRole("ROLE_WORKPLACEMANAGER"))
-                .and(UserSpecification.isActive())
-                .and(UserSpecification.searchByFields(search, fields));
-
-        Page<User> usersPage = userRepository.findAll(spec, Pageable.unpaged()); // unpaged since filtering happens after mapping
-
-        // Map Users to DTOs and fetch workplace/facility info
-        List<WrkMngrListDTO> fullDtoList = usersPage.getContent().stream()
-                .map(user -> {
-                    WrkMngrListDTO dto = modelMapper.map(user, WrkMngrListDTO.class);
-                    Workplace workplace = workplaceRepository.findByWorkplaceManager(user).orElse(null);
-                    if (workplace != null) {
-                        dto.setWorkplaceName(workplace.getName());
-                        dto.setFacilityName(workplace.getFacility().getName());
-                    }
-                    return dto;
-                })
-                .toList();
-
-        //Filter by workplaceName if given
-        List<WrkMngrListDTO> filteredList = fullDtoList.stream()
-                .filter(dto -> {
-                    if (fields != null && fields.contains("workplaceName") && search != null) {
-                        return dto.getWorkplaceName() != null &&
-                                dto.getWorkplaceName().toLowerCase().contains(search.toLowerCase());
-                    }
-                    return true;
-                })
-                .toList();
-
-        //manual pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), filteredList.size());
-
-        List<WrkMngrListDTO> pagedList = start > filteredList.size() ? List.of() : filteredList.subList(start, end);
-
-        return new PageImpl<>(pagedList, pageable, filteredList.size());
+    //Same matching rule as the Specification searches (see TextSearch)
+    private String likePattern(String search) {
+        return TextSearch.likePattern(search);
     }
 
 
     @Override
     public SuccessResponse getAvailableWorkplaceManagers(String search, List<String> fields) {
-        List<User> workplaceManagers = userRepository.findByRoleName("ROLE_WORKPLACEMANAGER");
+        boolean filter = search != null && fields != null && !fields.isEmpty();
 
-        List<String> collected = workplaceManagers.stream()
-                .filter(user -> workplaceRepository.findByWorkplaceManager(user).isEmpty())
-                .filter(user -> {
-                    if (search == null || fields == null || fields.isEmpty()) return true;
-
-                    String keyword = search.toLowerCase();
-                    boolean matches = false;
-
-                    if (fields.contains("name") && user.getName() != null) {
-                        matches |= user.getName().toLowerCase().contains(keyword);
-                    }
-                    if (fields.contains("email") && user.getEmail() != null) {
-                        matches |= user.getEmail().toLowerCase().contains(keyword);
-                    }
-
-                    return matches;
-                })
-                .map(User::getEmail)
-                .collect(Collectors.toList());
+        //Single anti-join query, search included
+        List<String> collected = userRepository.findAvailableWorkplaceManagerEmails(filter, likePattern(search),
+                filter && fields.contains("name"),
+                filter && fields.contains("email"));
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -436,6 +372,8 @@ public class UserServiceImpl implements UserService {
     public SuccessResponse updateWorker(long id, MgrUpdateReqDTO req) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("No Worker found with provided details."));
+        //Tokens issued for the old details must not keep working
+        authenticatedUserCache.revoke(user.getEmail());
         user.setName(req.getName());
         user.setEmail(req.getEmail());
         userRepository.save(user);
@@ -454,6 +392,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException("No Worker found with provided details."));
         user.setActive(false);
         userRepository.save(user);
+        authenticatedUserCache.revoke(user.getEmail());
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Successfully deleted the Facility Manager.")
@@ -500,27 +439,12 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public SuccessResponse getAvailableWorkers(String search, List<String> fields) {
-        List<User> workers = userRepository.findByRoleName("ROLE_WORKER");
+        boolean filter = search != null && fields != null && !fields.isEmpty();
 
-        List<String> collected = workers.stream()
-                .filter(worker -> workstationRepository.findByWorker(worker).isEmpty())
-                .filter(worker -> {
-                    if (search == null || fields == null || fields.isEmpty()) return true;
-
-                    String keyword = search.toLowerCase();
-                    boolean matches = false;
-
-                    if (fields.contains("name") && worker.getName() != null) {
-                        matches |= worker.getName().toLowerCase().contains(keyword);
-                    }
-                    if (fields.contains("email") && worker.getEmail() != null) {
-                        matches |= worker.getEmail().toLowerCase().contains(keyword);
-                    }
-
-                    return matches;
-                })
-                .map(User::getEmail)
-                .collect(Collectors.toList());
+        //Single anti-join query, search included
+        List<String> collected = userRepository.findAvailableWorkerEmails(filter, likePattern(search),
+                filter && fields.contains("name"),
+                filter && fields.contains("email"));
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -614,73 +538,29 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Page<UserHierarchyDTO> getAllUserHierarchies(int page, int size, String role, String email) {
-        Pageable fetchLargerPage = PageRequest.of(page, size * 3); // over-fetch
-        Specification<User> spec = Specification.where(null);
+        Pageable pageable = PageRequest.of(page, size, Sort.by("userId", "rowKey"));
+        Specification<UserHierarchyView> spec = Specification.where(null);
 
         if (role != null && !role.isBlank()) {
-            spec = spec.and((root, query, cb)
-                    -> cb.equal(root.join("roles").get("role"), role));
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("role"), role));
         }
 
         if (email != null && !email.isBlank()) {
             spec = spec.and((root, query, cb)
-                    -> cb.like(cb.lower(root.get("email")), "%" + email.toLowerCase() + "%"));
-        }
-
-        Page<User> users = userRepository.findAll(spec, fetchLargerPage);
-        List<UserHierarchyDTO> filteredResult = new ArrayList<>();
-
-        for (User user : users.getContent()) {
-            String userRole = user.getRoles().get(0).getRole();
-            UserHierarchyDTO.UserHierarchyDTOBuilder builder = UserHierarchyDTO.builder()
-                    .email(user.getEmail())
-                    .name(user.getName())
-                    .role(userRole);
-
-            switch (userRole) {
-                case "ROLE_OWNER" -> filteredResult.add(builder.build());
-
-                case "ROLE_FACILITYMANAGER" -> facilityRepository.findByFacilityManager(user).ifPresent(facility -> {
-                    builder.facilityName(facility.getName());
-                    builder.workplaces(facility.getWorkplaces().stream().map(Workplace::getName).toList());
-                    filteredResult.add(builder.build());
-                });
-
-                case "ROLE_WORKPLACEMANAGER" -> workplaceRepository.findByWorkplaceManager(user)
-                        .ifPresent(wp -> toolCribRepository.findByWorkplace(wp)
-                                .ifPresent(toolCrib -> {
-                    builder.facilityName(wp.getFacility().getName())
-                            .workplaceName(wp.getName())
-                            .toolCribName(toolCrib.getName());
-                    filteredResult.add(builder.build());
-                }));
-
-                case "ROLE_TOOLCRIBMANAGER" -> toolCribRepository.findByToolCribManagersContaining(user).ifPresent(toolCrib -> {
-                    Workplace wp = toolCrib.getWorkplace();
-                    builder.facilityName(wp.getFacility().getName())
-                            .workplaceName(wp.getName())
-                            .toolCribName(toolCrib.getName());
-                    filteredResult.add(builder.build());
-                });
-
-                case "ROLE_WORKER" -> workstationRepository.findByWorker(user).ifPresent(ws -> {
-                    Workplace wp = ws.getWorkplace();
-                    toolCribRepository.findByWorkplace(wp).ifPresent(toolCrib -> {
-                        builder.facilityName(wp.getFacility().getName())
-                                .workplaceName(wp.getName())
-                                .toolCribName(toolCrib.getName())
-                                .workstationCode(ws.getStationCode());
-                        filteredResult.add(builder.build());
-                    });
-                });
-            }
-
-            if (filteredResult.size() >= size) break; //i am doing filtering post pagination -> that is why
-            //manual pagination must happen
+                    -> TextSearch.matches(cb, root.get("email"), email));
         }
 
-        int total = (int) users.getTotalElements(); //total users
-        return new PageImpl<>(filteredResult.subList(0, Math.min(size, filteredResult.size())),
-                PageRequest.of(page, size), total);
+        //Premises are resolved by the view, so paging and the total are exact
+        return userHierarchyViewRepository.findAll(spec, pageable)
+                .map(view -> UserHierarchyDTO.builder()
+                        .email(view.getEmail())
+                        .name(view.getName())
+                        .role(view.getRole())
+                        .facilityName(view.getFacilityName())
+                        .workplaceName(view.getWorkplaceName())
+                        .toolCribName(view.getToolCribName())
+                        .workstationCode(view.getWorkstationCode())
+                        .workplaces(view.getWorkplaceNames() == null ? List.of() : List.of(view.getWorkplaceNames()))
+                        .build());
     }
 }
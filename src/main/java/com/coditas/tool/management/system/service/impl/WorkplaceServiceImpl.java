@@ -15,6 +15,7 @@ import com.coditas.tool.management.system.repository.UserRepository;
 import com.coditas.tool.management.system.repository.WorkplaceRepository;
 import com.coditas.tool.management.system.service.WorkplaceService;
 import com.coditas.tool.management.system.specification.WorkplaceSpecification;
+import com.coditas.tool.management.system.security.PremiseTopologyIndex;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -36,12 +37,15 @@ public class WorkplaceServiceImpl implements WorkplaceService {
     private final FacilityRepository facilityRepository;
     private final WorkplaceRepository workplaceRepository;
     private final ToolCribRepository toolCribRepository;
+    private final PremiseTopologyIndex premiseTopologyIndex;
 
-    public WorkplaceServiceImpl(UserRepository userRepository, FacilityRepository facilityRepository, WorkplaceRepository workplaceRepository, ToolCribRepository toolCribRepository) {
+    public WorkplaceServiceImpl(UserRepository userRepository, FacilityRepository facilityRepository, WorkplaceRepository workplaceRepository, ToolCribRepository toolCribRepository,
+                                PremiseTopologyIndex premiseTopologyIndex) {
         this.userRepository = userRepository;
         this.facilityRepository = facilityRepository;
         this.workplaceRepository = workplaceRepository;
         this.toolCribRepository = toolCribRepository;
+        this.premiseTopologyIndex = premiseTopologyIndex;
     }
 
     @Override
@@ -79,6 +83,7 @@ public class WorkplaceServiceImpl implements WorkplaceService {
                 .build();
 
         toolCribRepository.save(toolCrib);
+        premiseTopologyIndex.invalidate();
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -103,6 +108,7 @@ public class WorkplaceServiceImpl implements WorkplaceService {
         }
 
         workplaceRepository.save(workplace);
+        premiseTopologyIndex.invalidate();
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -126,6 +132,7 @@ public class WorkplaceServiceImpl implements WorkplaceService {
         });
 
         workplaceRepository.delete(workplace);
+        premiseTopologyIndex.invalidate();
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
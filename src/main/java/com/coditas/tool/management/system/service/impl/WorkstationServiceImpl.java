@@ -11,6 +11,7 @@ import com.coditas.tool.management.system.repository.WorkplaceRepository;
 import com.coditas.tool.management.system.repository.WorkstationRepository;
 import com.coditas.tool.management.system.service.WorkstationService;
 import com.coditas.tool.management.system.specification.WorkstationSpecification;
+import com.coditas.tool.management.system.security.PremiseTopologyIndex;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -32,13 +33,16 @@ public class WorkstationServiceImpl implements WorkstationService {
     private final UserRepository userRepository;
     private final WorkplaceRepository workplaceRepository;
     private final WorkstationRepository workstationRepository;
+    private final PremiseTopologyIndex premiseTopologyIndex;
 
 
     @Autowired
-    public WorkstationServiceImpl(UserRepository userRepository, WorkplaceRepository workplaceRepository, WorkstationRepository workstationRepository) {
+    public WorkstationServiceImpl(UserRepository userRepository, WorkplaceRepository workplaceRepository, WorkstationRepository workstationRepository,
+                                  PremiseTopologyIndex premiseTopologyIndex) {
         this.userRepository = userRepository;
         this.workplaceRepository = workplaceRepository;
         this.workstationRepository = workstationRepository;
+        this.premiseTopologyIndex = premiseTopologyIndex;
     }
 
     @Override
@@ -78,6 +82,7 @@ public class WorkstationServiceImpl implements WorkstationService {
                                         .name(stationCode).build();
 
         workstationRepository.save(workstation);
+        premiseTopologyIndex.invalidate();
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -114,6 +119,7 @@ public class WorkstationServiceImpl implements WorkstationService {
         }
 
         workstationRepository.save(workstation);
+        premiseTopologyIndex.invalidate();
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -134,6 +140,7 @@ public class WorkstationServiceImpl implements WorkstationService {
         }
 
         workstationRepository.delete(workstation);
+        premiseTopologyIndex.invalidate();
 
         return SuccessResponse.builder()
                 .status(HttpStatus.OK.value())
@@ -16,21 +16,20 @@ public class FacilitySpecification {
                 return cb.conjunction(); //predicate which is always true
             }
 
-            String pattern = "%" + keyword.toLowerCase() + "%";
             List<Predicate> predicates = new ArrayList<>();
 
             for (String field : fields) {
                 switch (field) {
                     case "name":
-                        predicates.add(cb.like(cb.lower(root.get("name")), pattern));
+                        predicates.add(TextSearch.matches(cb, root.get("name"), keyword));
+                        TextSearch.orderByRelevance(query, cb, root.get("name"), keyword);
                         break;
                     case "address":
-                        predicates.add(cb.like(cb.lower(root.get("address")), pattern));
+                        predicates.add(TextSearch.matches(cb, root.get("address"), keyword));
                         break;
                     case "facilityManagerEmail":
-                        predicates.add(cb.like(cb.lower(
-                                root.join("facilityManager", JoinType.LEFT).get("email")
-                        ), pattern));
+                        predicates.add(TextSearch.matches(cb,
+                                root.join("facilityManager", JoinType.LEFT).get("email"), keyword));
                         break;
                 }
             }
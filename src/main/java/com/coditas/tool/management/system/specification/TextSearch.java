@@ -0,0 +1,68 @@
+package com.coditas.tool.management.system.specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+//Single matching rule for every search/fields filter. Columns are always compared as lower(column), the
+//expression the pg_trgm GIN indexes (db/migration V2, V3) are built on.
+//Every term is a substring match, as before the indexes existed. Terms of 3+ characters are served by the
+//trigram index; shorter ones carry no trigram and fall back to a scan. Prefix matching only exists as a
+//ranking tier: relevance order puts exact and prefix hits first.
+public final class TextSearch {
+
+    private static final char ESCAPE = '\\';
+
+    private TextSearch() {
+    }
+
+    //Trimmed, lower-cased term, or null when there is nothing to search for
+    public static String normalize(String term) {
+        if (term == null || term.isBlank()) {
+            return null;
+        }
+        return term.trim().toLowerCase();
+    }
+
+    //LIKE pattern for the term with user supplied wildcards escaped; "%" (match all) for no term
+    public static String likePattern(String term) {
+        String normalized = normalize(term);
+        if (normalized == null) {
+            return "%";
+        }
+        String escaped = normalized
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    public static Predicate matches(CriteriaBuilder cb, Expression<String> column, String term) {
+        return cb.like(cb.lower(column), likePattern(term), ESCAPE);
+    }
+
+    //Exact matches first, then prefix matches, then by trigram similarity. Only applied to row queries
+    //without their own order; a Sort on the Pageable replaces it, and count/distinct queries are left alone.
+    public static void orderByRelevance(CriteriaQuery<?> query, CriteriaBuilder cb,
+                                        Expression<String> column, String term) {
+        String normalized = normalize(term);
+        if (normalized == null || query.isDistinct() || !query.getOrderList().isEmpty()
+                || Long.class.equals(query.getResultType()) || long.class.equals(query.getResultType())) {
+            return;
+        }
+
+        Expression<String> value = cb.lower(column);
+        Expression<Integer> tier = cb.<Integer>selectCase()
+                .when(cb.equal(value, normalized), 0)
+                .when(cb.like(value, likePrefix(normalized), ESCAPE), 1)
+                .otherwise(2);
+        Expression<Double> similarity = cb.function("similarity", Double.class, value, cb.literal(normalized));
+
+        query.orderBy(cb.asc(tier), cb.desc(similarity));
+    }
+
+    private static String likePrefix(String normalized) {
+        return normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -23,19 +23,18 @@ public class ToolCribSpecification {
                 return basePredicate;
             }
 
-            String likePattern = "%" + search.toLowerCase() + "%";
             List<Predicate> searchPredicates = new ArrayList<>();
 
             for (String field : fields) {
                 switch (field) {
                     case "name":
-                        searchPredicates.add(cb.like(cb.lower(root.get("name")), likePattern));
+                        searchPredicates.add(TextSearch.matches(cb, root.get("name"), search));
                         break;
                     case "workplaceName":
-                        searchPredicates.add(cb.like(cb.lower(workplaceJoin.get("name")), likePattern));
+                        searchPredicates.add(TextSearch.matches(cb, workplaceJoin.get("name"), search));
                         break;
                     case "toolCribManagerEmail":
-                        searchPredicates.add(cb.like(cb.lower(managerJoin.get("email")), likePattern));
+                        searchPredicates.add(TextSearch.matches(cb, managerJoin.get("email"), search));
                         break;
                 }
             }
@@ -31,9 +31,14 @@ public class ToolInventorySpecification {
         };
     }
 
-    public static Specification<ToolInventory> availableLessThanMinimumThreshold() {
-        return (root, query, cb) ->
-                cb.lessThan(root.get("availableQuantity"), root.get("minimumThreshold"));
+    //Keyset predicate, tool names are unique so the name alone is a stable cursor
+    public static Specification<ToolInventory> toolNameGreaterThan(String toolName) {
+        return (root, query, cb) -> cb.greaterThan(root.get("tool").get("name"), toolName);
+    }
+
+    //Uses the maintained low_stock flag (indexed with tool_crib_id) instead of comparing two columns per row
+    public static Specification<ToolInventory> isLowStock() {
+        return (root, query, cb) -> cb.isTrue(root.get("lowStock"));
     }
 
     public static Specification<ToolInventory> filterInventory(Long toolCribId, String name, Boolean isPerishable,
@@ -47,7 +52,8 @@ public class ToolInventorySpecification {
             Join<Object, Object> tool = root.join("tool");
 
             if (name != null && !name.trim().isEmpty()) {
-                predicates.add(cb.like(cb.lower(tool.get("name")), "%" + name.toLowerCase() + "%"));
+                predicates.add(TextSearch.matches(cb, tool.get("name"), name));
+                TextSearch.orderByRelevance(query, cb, tool.get("name"), name);
             }
 
             if (isPerishable != null) {
@@ -84,7 +90,8 @@ public class ToolInventorySpecification {
             predicates.add(cb.equal(root.get("toolCrib").get("id"), toolCribId));
 
             if (name != null && !name.trim().isEmpty()) {
-                predicates.add(cb.like(cb.lower(root.get("tool").get("name")), "%" + name.toLowerCase() + "%"));
+                predicates.add(TextSearch.matches(cb, root.get("tool").get("name"), name));
+                TextSearch.orderByRelevance(query, cb, root.get("tool").get("name"), name);
             }
 
             if (isPerishable != null) {
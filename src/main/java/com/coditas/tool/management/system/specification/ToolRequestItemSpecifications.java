@@ -26,11 +26,11 @@ public class ToolRequestItemSpecifications {
     }
 
     public static Specification<ToolRequestItem> toolNameLike(String toolName) {
-        return (root, query, cb) -> cb.like(cb.lower(root.get("tool").get("name")), "%" + toolName.toLowerCase() + "%");
+        return (root, query, cb) -> TextSearch.matches(cb, root.get("tool").get("name"), toolName);
     }
 
     public static Specification<ToolRequestItem> workerEmailLike(String workerEmail) {
-        return (root, query, cb) -> cb.like(cb.lower(root.get("toolRequest").get("worker").get("email")), "%" + workerEmail.toLowerCase() + "%");
+        return (root, query, cb) -> TextSearch.matches(cb, root.get("toolRequest").get("worker").get("email"), workerEmail);
     }
 
     public static Specification<ToolRequestItem> requestDateAfter(LocalDateTime startDateTime) {
@@ -40,4 +40,8 @@ public class ToolRequestItemSpecifications {
     public static Specification<ToolRequestItem> requestDateBefore(LocalDateTime endDateTime) {
         return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("toolRequest").get("requestDate"), endDateTime);
     }
+
+    public static Specification<ToolRequestItem> idLessThan(Long id) {
+        return (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
 }
@@ -16,7 +16,8 @@ public class ToolSpecification {
             List<Predicate> predicates = new ArrayList<>();
 
             if (name != null && !name.trim().isEmpty()) {
-                predicates.add(cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
+                predicates.add(TextSearch.matches(cb, root.get("name"), name));
+                TextSearch.orderByRelevance(query, cb, root.get("name"), name);
             }
 
             if (isPerishable != null) {
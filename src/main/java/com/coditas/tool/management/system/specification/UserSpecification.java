@@ -25,17 +25,18 @@ public class UserSpecification {
 
     public static Specification<User> searchByFields(String keyword, List<String> fields) {
         return (root, query, cb) -> {
-            if (keyword == null || fields == null || fields.isEmpty()) return null;
+            if (TextSearch.normalize(keyword) == null || fields == null || fields.isEmpty()) return null;
 
-            String pattern = "%" + keyword.toLowerCase() + "%";
             List<Predicate> predicates = new ArrayList<>();
 
             if (fields.contains("name")) {
-                predicates.add(cb.like(cb.lower(root.get("name")), pattern));
+                predicates.add(TextSearch.matches(cb, root.get("name"), keyword));
+                TextSearch.orderByRelevance(query, cb, root.get("name"), keyword);
             }
 
             if (fields.contains("email")) {
-                predicates.add(cb.like(cb.lower(root.get("email")), pattern));
+                predicates.add(TextSearch.matches(cb, root.get("email"), keyword));
+                TextSearch.orderByRelevance(query, cb, root.get("email"), keyword);
             }
 
             return cb.or(predicates.toArray(new Predicate[0]));
@@ -35,20 +35,22 @@ public class WorkplaceSpecification {
 
     public static Specification<Workplace> searchByFields(String search, List<String> fields) {
         return (root, query, cb) -> {
-            if (search == null || fields == null || fields.isEmpty()) {
+            if (TextSearch.normalize(search) == null || fields == null || fields.isEmpty()) {
                 return cb.conjunction();
             }
 
             List<Predicate> predicates = new ArrayList<>();
-            String pattern = "%" + search.toLowerCase() + "%";
 
             for (String field : fields) {
                 switch (field) {
-                    case "name" -> predicates.add(cb.like(cb.lower(root.get("name")), pattern));
+                    case "name" -> {
+                        predicates.add(TextSearch.matches(cb, root.get("name"), search));
+                        TextSearch.orderByRelevance(query, cb, root.get("name"), search);
+                    }
                     case "workplaceManagerEmail" ->
-                            predicates.add(cb.like(cb.lower(root.join("workplaceManager").get("email")), pattern));
+                            predicates.add(TextSearch.matches(cb, root.join("workplaceManager").get("email"), search));
                     case "facilityName" ->
-                            predicates.add(cb.like(cb.lower(root.join("facility").get("name")), pattern));
+                            predicates.add(TextSearch.matches(cb, root.join("facility").get("name"), search));
                 }
             }
 
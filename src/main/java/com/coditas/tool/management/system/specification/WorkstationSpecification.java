@@ -21,16 +21,15 @@ public class WorkstationSpecification {
                 return cb.conjunction(); // No filtering
             }
 
-            String pattern = "%" + search.toLowerCase() + "%";
             List<Predicate> predicates = new ArrayList<>();
 
             Join<Object, Object> workerJoin = root.join("worker", JoinType.LEFT);
 
             for (String field : fields) {
                 switch (field) {
-                    case "name" -> predicates.add(cb.like(cb.lower(root.get("stationCode")), pattern));
-                    case "workerEmail" -> predicates.add(cb.like(cb.lower(workerJoin.get("email")), pattern));
-                    case "workerName" -> predicates.add(cb.like(cb.lower(workerJoin.get("name")), pattern));
+                    case "name" -> predicates.add(TextSearch.matches(cb, root.get("stationCode"), search));
+                    case "workerEmail" -> predicates.add(TextSearch.matches(cb, workerJoin.get("email"), search));
+                    case "workerName" -> predicates.add(TextSearch.matches(cb, workerJoin.get("name"), search));
                 }
             }
 
@@ -0,0 +1,21 @@
+-- Composite indexes for the hot filters. Postgres does not index foreign keys on its own.
+
+-- Worker/crib listings and unreturned-tool lookups filter on both statuses
+CREATE INDEX IF NOT EXISTS idx_tool_request_items_status
+    ON tool_request_items (return_status, approval_status);
+
+-- Items are always reached through their request
+CREATE INDEX IF NOT EXISTS idx_tool_request_items_request
+    ON tool_request_items (request_id);
+
+-- Crib manager listings: items of one workplace, filtered/ordered by request date
+CREATE INDEX IF NOT EXISTS idx_tool_requests_workplace_date
+    ON tool_requests (workplace_id, request_date);
+
+-- Every stock movement addresses a single (crib, tool) row
+CREATE INDEX IF NOT EXISTS idx_tool_inventory_crib_tool
+    ON tool_inventory (tool_crib_id, tool_id);
+
+-- Facility manager log window: own logs between two timestamps
+CREATE INDEX IF NOT EXISTS idx_tool_inventory_logs_assigned_by_at
+    ON tool_inventory_logs (assigned_by, assigned_at);
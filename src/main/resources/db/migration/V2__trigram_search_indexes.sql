@@ -0,0 +1,12 @@
+-- LOWER(col) LIKE '%term%' searches cannot use a btree; trigram GIN indexes on the same expression can.
+-- Needs a role allowed to create the extension (or pg_trgm installed by the DBA beforehand).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm
+    ON users USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm
+    ON users USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_tools_name_trgm
+    ON tools USING gin (lower(name) gin_trgm_ops);
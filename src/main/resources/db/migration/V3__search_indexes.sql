@@ -0,0 +1,16 @@
+-- Remaining searched columns get trigram indexes on lower(col), matching TextSearch.matches.
+CREATE INDEX IF NOT EXISTS idx_facilities_name_trgm
+    ON facilities USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_facilities_address_trgm
+    ON facilities USING gin (lower(address) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_workplaces_name_trgm
+    ON workplaces USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_tool_cribs_name_trgm
+    ON tool_cribs USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_workstations_station_code_trgm
+    ON workstations USING gin (lower(station_code) gin_trgm_ops);
+
@@ -0,0 +1,6 @@
+-- Mails that must be queued at most once carry a dedupe key (e.g. overdue digest per worker and day).
+-- NULLs stay distinct, so ordinary mails are unaffected.
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS dedupe_key varchar(255);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_email_outbox_dedupe_key
+    ON email_outbox (dedupe_key);
@@ -0,0 +1,6 @@
+-- Hibernate only writes the enum check constraint when it creates the table, so tables created before the
+-- SENDING claim status would reject it.
+ALTER TABLE email_outbox DROP CONSTRAINT IF EXISTS email_outbox_status_check;
+
+ALTER TABLE email_outbox ADD CONSTRAINT email_outbox_status_check
+    CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'));
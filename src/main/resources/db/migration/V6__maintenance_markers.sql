@@ -0,0 +1,11 @@
+-- One row per one-off data maintenance step that must never run twice (e.g. rollup backfills).
+CREATE TABLE IF NOT EXISTS maintenance_markers (
+    name         varchar(100) PRIMARY KEY,
+    completed_at timestamp    NOT NULL
+);
+
+-- Deployments that already backfilled tool_usage_daily (formerly guarded by an empty-table check) keep it
+INSERT INTO maintenance_markers (name, completed_at)
+SELECT 'tool_usage_daily_backfill', now()
+WHERE EXISTS (SELECT 1 FROM tool_usage_daily)
+ON CONFLICT (name) DO NOTHING;
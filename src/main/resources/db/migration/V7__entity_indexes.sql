@@ -0,0 +1,29 @@
+-- Indexes formerly declared on the entities (@Table(indexes = ...)) and created by ddl-auto. Same names, so
+-- databases where hibernate already created them are left as they are.
+
+-- Owner dashboard: most expensive tools
+CREATE INDEX IF NOT EXISTS idx_tools_price
+    ON tools (price);
+
+-- Low-stock listing per crib reads the maintained flag
+CREATE INDEX IF NOT EXISTS idx_tool_inventory_crib_low_stock
+    ON tool_inventory (tool_crib_id, low_stock);
+
+-- Overdue sweeper: unreturned items by due date, chunked on id
+CREATE INDEX IF NOT EXISTS idx_tool_request_items_return_due
+    ON tool_request_items (return_status, return_date, id);
+
+-- Dashboard top-N by demand and by breakage
+CREATE INDEX IF NOT EXISTS idx_tool_usage_stats_demanded
+    ON tool_usage_stats (demanded_quantity);
+
+CREATE INDEX IF NOT EXISTS idx_tool_usage_stats_broken
+    ON tool_usage_stats (broken_quantity);
+
+-- Windowed analytics: range over bucket dates
+CREATE INDEX IF NOT EXISTS idx_tool_usage_daily_bucket
+    ON tool_usage_daily (bucket_date);
+
+-- Outbox dispatcher: due rows by status
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt
+    ON email_outbox (status, next_attempt_at);
@@ -0,0 +1,9 @@
+-- Foreign keys the listings filter or join on that had no index, see IndexUsageTests
+
+-- Worker listings: own requests only
+CREATE INDEX IF NOT EXISTS idx_tool_requests_worker
+    ON tool_requests (worker_id);
+
+-- Workplace manager special-request listing reaches items through the (few) special tools
+CREATE INDEX IF NOT EXISTS idx_tool_request_items_tool
+    ON tool_request_items (tool_id);
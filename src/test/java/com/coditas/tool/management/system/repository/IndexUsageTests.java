@@ -0,0 +1,333 @@
+package com.coditas.tool.management.system.repository;
+
+import com.coditas.tool.management.system.PostgresIntegrationTest;
+import com.coditas.tool.management.system.entity.User;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
+import com.coditas.tool.management.system.service.ToolInventoryService;
+import com.coditas.tool.management.system.service.ToolRequestService;
+import com.coditas.tool.management.system.service.ToolService;
+import com.coditas.tool.management.system.support.CapturedStatement;
+import com.coditas.tool.management.system.support.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Captures the SQL the repositories and services actually send (StatementCounter.capture) and EXPLAINs it with the
+//same parameters, on a bulk data set large enough that the planner only picks an index when it pays off.
+//Full recomputes (usage stats rebuild, daily backfill) read whole tables by design and are not covered.
+class IndexUsageTests extends PostgresIntegrationTest {
+
+	private static final String WORKER_EMAIL = "explain-user-1@bulk.local";
+
+	private static boolean seeded;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ToolRequestService toolRequestService;
+
+	@Autowired
+	private ToolInventoryService toolInventoryService;
+
+	@Autowired
+	private ToolService toolService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ToolRequestItemRepository toolRequestItemRepository;
+
+	@Autowired
+	private ToolInventoryRepository toolInventoryRepository;
+
+	@Autowired
+	private ToolInventoryLogRepository toolInventoryLogRepository;
+
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+
+	@Autowired
+	private ToolUsageStatRepository toolUsageStatRepository;
+
+	@Autowired
+	private ToolUsageDailyRepository toolUsageDailyRepository;
+
+	private AuthenticatedUser principal;
+
+	@BeforeEach
+	void setUp() {
+		if (!seeded) {
+			seed();
+			seeded = true;
+		}
+
+		//Worker 1 raised its requests at workplace 1, whose crib manager listings are checked with the same principal
+		Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, WORKER_EMAIL);
+		Long workplaceId = jdbcTemplate.queryForObject(
+				"SELECT workplace_id FROM tool_requests WHERE worker_id = ? LIMIT 1", Long.class, userId);
+		Long toolCribId = jdbcTemplate.queryForObject(
+				"SELECT id FROM tool_cribs WHERE workplace_id = ?", Long.class, workplaceId);
+		principal = AuthenticatedUser.builder()
+				.id(userId)
+				.name("explain-user-1")
+				.email(WORKER_EMAIL)
+				.active(true)
+				.roles(List.of("ROLE_WORKER"))
+				.workstationId(-1L)
+				.workplaceId(workplaceId)
+				.toolCribId(toolCribId)
+				.build();
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void workerListingsUseWorkerIndex() {
+		String plans = plans(() -> {
+			toolRequestService.getToolRequestsByWorker(null, null, 0, 10);
+			toolRequestService.getToolRequestsByWorker(null, null, (String) null, 10);
+		});
+
+		assertIndexed(plans, "tool_requests", "idx_tool_requests_worker");
+		assertIndexed(plans, "tool_request_items", "idx_tool_request_items_request");
+	}
+
+	@Test
+	void cribManagerListingsUseWorkplaceIndex() {
+		LocalDateTime now = LocalDateTime.now();
+		String plans = plans(() -> {
+			toolRequestService.getAllToolRequestsForCribManager(0, 10, null, null, now.minusDays(30), now);
+			toolRequestService.getAllToolRequestsForCribManager((String) null, 10, null, null, null, null);
+			toolRequestItemRepository.findUnreturnedItemsByWorkplaceId(principal.getWorkplaceId());
+		});
+
+		assertIndexed(plans, "tool_requests", "idx_tool_requests_workplace_date");
+		assertIndexed(plans, "tool_request_items", "idx_tool_request_items_request");
+	}
+
+	@Test
+	void specialRequestListingUsesToolIndex() {
+		String plans = plans(() -> toolRequestService.getSpecialRequestsForManager(0, 10, null, null, null, null));
+
+		assertIndexed(plans, "tool_request_items", "idx_tool_request_items_tool");
+	}
+
+	@Test
+	void logWindowUsesAssignedByIndex() {
+		User user = userRepository.findByEmail(WORKER_EMAIL).orElseThrow();
+		LocalDateTime now = LocalDateTime.now();
+		String plans = plans(() -> {
+			toolInventoryLogRepository.findByAssignedByAndAssignedAtBetween(user, now.minusDays(30), now,
+					PageRequest.of(0, 20));
+			toolInventoryLogRepository.findByAssignedByAndAssignedAtBetweenAndIdLessThanOrderByIdDesc(user,
+					now.minusDays(30), now, Long.MAX_VALUE, Limit.of(21));
+		});
+
+		assertIndexed(plans, "tool_inventory_logs", "idx_tool_inventory_logs_assigned_by_at");
+	}
+
+	@Test
+	void lowStockListingUsesLowStockIndex() {
+		String plans = plans(() -> {
+			toolInventoryService.getToolInventoryForToolCrib(principal.getToolCribId(), 0, 20, true);
+			toolInventoryService.getToolInventoryForToolCrib(principal.getToolCribId(), (String) null, 20, true);
+		});
+
+		assertIndexed(plans, "tool_inventory", "idx_tool_inventory_crib_low_stock");
+	}
+
+	@Test
+	void stockMovementUsesCribToolIndex() {
+		Long toolId = jdbcTemplate.queryForObject("SELECT tool_id FROM tool_inventory WHERE tool_crib_id = ? LIMIT 1",
+				Long.class, principal.getToolCribId());
+		String plans = plans(() -> inRolledBackTransaction(() ->
+				toolInventoryRepository.reserveQuantity(principal.getToolCribId(), toolId, 1L)));
+
+		assertIndexed(plans, "tool_inventory", "idx_tool_inventory_crib_tool");
+	}
+
+	@Test
+	void outboxClaimUsesStatusIndex() {
+		String plans = plans(() -> inRolledBackTransaction(() ->
+				emailOutboxRepository.lockDueBatch(LocalDateTime.now(), 50)));
+
+		assertIndexed(plans, "email_outbox", "idx_email_outbox_status_next_attempt");
+	}
+
+	@Test
+	void overdueSweepUsesReturnDueIndex() {
+		String plans = plans(() -> toolRequestItemRepository.findOverdueKeys(LocalDateTime.now(),
+				LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 1000));
+
+		assertIndexed(plans, "tool_request_items", "idx_tool_request_items_return_due");
+	}
+
+	@Test
+	void topToolReportsUseAggregateIndexes() {
+		String plans = plans(() -> {
+			toolUsageStatRepository.findTopDemandedTools(Limit.of(5));
+			toolUsageStatRepository.findTopBrokenTools(Limit.of(5));
+		});
+
+		assertIndexed(plans, "tool_usage_stats", "idx_tool_usage_stats_demanded");
+		assertThat(plans).contains("idx_tool_usage_stats_broken");
+	}
+
+	//The primary key also leads with bucket_date, either index serves the date window
+	@Test
+	void usageRollupWindowUsesBucketIndex() {
+		LocalDate today = LocalDate.now();
+		String plans = plans(() -> toolUsageDailyRepository.aggregate("toolCrib", "day", today.minusDays(6), today,
+				null, null, null, null));
+
+		assertThat(plans).doesNotContainPattern("Seq Scan on tool_usage_daily\\b");
+		assertThat(plans).containsPattern("on (idx_tool_usage_daily_bucket|tool_usage_daily_pkey)");
+	}
+
+	@Test
+	void toolSearchUsesTrigramIndex() {
+		String plans = plans(() -> toolService.getTools("tool-1234", null, null, null, null, PageRequest.of(0, 20)));
+
+		assertIndexed(plans, "tools", "idx_tools_name_trgm");
+	}
+
+	private String plans(Runnable work) {
+		List<CapturedStatement> statements = StatementCounter.capture(work);
+		assertThat(statements).as("captured statements").isNotEmpty();
+
+		return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+			StringBuilder plans = new StringBuilder();
+			for (CapturedStatement statement : statements) {
+				plans.append("-- ").append(statement.sql()).append('\n')
+						.append(statement.explain(connection)).append('\n');
+			}
+			return plans.toString();
+		});
+	}
+
+	private void assertIndexed(String plans, String table, String index) {
+		assertThat(plans).as("plans").doesNotContainPattern("Seq Scan on " + table + "\\b");
+		assertThat(plans).as("plans").contains(index);
+	}
+
+	private void inRolledBackTransaction(Runnable work) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			work.run();
+			status.setRollbackOnly();
+		});
+	}
+
+	//2000 workers over 500 workplaces (one crib each), 20000 tools, 50000 requests with one item each (2% unreturned),
+	//50000 log rows, 20000 outbox rows (50 due), one stats row per tool and a year of daily rollups for 200 cribs
+	private void seed() {
+		jdbcTemplate.execute("""
+				INSERT INTO users (name, email, password, active, created_at)
+				SELECT 'explain-user-' || g, 'explain-user-' || g || '@bulk.local', 'x', true, now()
+				FROM generate_series(1, 2000) g
+				""");
+		jdbcTemplate.execute("""
+				INSERT INTO workplaces (name, created_at, updated_at)
+				SELECT 'explain-workplace-' || g, now(), now()
+				FROM generate_series(1, 500) g
+				""");
+		jdbcTemplate.execute("""
+				INSERT INTO tool_cribs (name, workplace_id)
+				SELECT 'explain-crib-' || w.id, w.id
+				FROM workplaces w
+				WHERE w.name LIKE 'explain-workplace-%'
+				""");
+		jdbcTemplate.execute("""
+				INSERT INTO tools (name, price, fine_amount, is_perishable, return_period, category, created_at)
+				SELECT 'explain-tool-' || g, g % 5000, 10, false, 5, 'NORMAL', now()
+				FROM generate_series(1, 20000) g
+				""");
+		jdbcTemplate.execute("""
+				WITH c AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n
+				           FROM tool_cribs WHERE name LIKE 'explain-crib-%'),
+				     t AS (SELECT array_agg(id ORDER BY id) AS ids FROM tools WHERE name LIKE 'explain-tool-%')
+				INSERT INTO tool_inventory (tool_crib_id, tool_id, total_quantity, available_quantity, broken_quantity,
+				                            minimum_threshold, low_stock, last_updated)
+				SELECT c.id, t.ids[1 + c.n * 40 + g], 100,
+				       CASE WHEN g = 0 AND c.n % 4 = 0 THEN 1 ELSE 50 END, 0, 5, g = 0 AND c.n % 4 = 0, now()
+				FROM c, t, generate_series(0, 39) g
+				""");
+		jdbcTemplate.execute("""
+				WITH u AS (SELECT array_agg(id ORDER BY id) AS ids FROM users WHERE email LIKE 'explain-user-%'),
+				     w AS (SELECT array_agg(id ORDER BY id) AS ids FROM workplaces WHERE name LIKE 'explain-workplace-%')
+				INSERT INTO tool_requests (worker_id, workplace_id, request_status, request_date)
+				SELECT u.ids[1 + g % 2000], w.ids[1 + g % 500], 'PENDING', now() - make_interval(days => g % 365)
+				FROM u, w, generate_series(0, 49999) g
+				""");
+		jdbcTemplate.execute("""
+				WITH t AS (SELECT array_agg(id ORDER BY id) AS ids FROM tools WHERE name LIKE 'explain-tool-%')
+				INSERT INTO tool_request_items (request_id, tool_id, req_quantity, approval_status, return_status,
+				                                return_date)
+				SELECT r.id, t.ids[1 + r.id % 20000], 1, 'APPROVED',
+				       CASE WHEN r.id % 50 = 0 THEN 'PENDING' ELSE 'RETURNED' END, r.request_date + interval '5 days'
+				FROM tool_requests r
+				JOIN users u ON u.id = r.worker_id, t
+				WHERE u.email LIKE 'explain-user-%'
+				""");
+		jdbcTemplate.execute("""
+				WITH u AS (SELECT array_agg(id ORDER BY id) AS ids FROM users WHERE email LIKE 'explain-user-%'),
+				     c AS (SELECT array_agg(id ORDER BY id) AS ids, array_agg(workplace_id ORDER BY id) AS workplaces
+				           FROM tool_cribs WHERE name LIKE 'explain-crib-%'),
+				     t AS (SELECT array_agg(id ORDER BY id) AS ids FROM tools WHERE name LIKE 'explain-tool-%')
+				INSERT INTO tool_inventory_logs (tool_id, tool_crib_id, workplace_id, assigned_by, quantity_assigned,
+				                                 assigned_at)
+				SELECT t.ids[1 + g % 20000], c.ids[1 + g % 500], c.workplaces[1 + g % 500], u.ids[1 + g % 2000], 1,
+				       now() - make_interval(days => g % 365)
+				FROM u, c, t, generate_series(0, 49999) g
+				""");
+		jdbcTemplate.execute("""
+				INSERT INTO email_outbox (recipient, subject, body, status, attempts, next_attempt_at, created_at)
+				SELECT 'explain-' || g || '@bulk.local', 'Bulk', 'Bulk',
+				       CASE WHEN g % 400 = 0 THEN 'PENDING' ELSE 'SENT' END, 0, now() - interval '1 minute', now()
+				FROM generate_series(1, 20000) g
+				""");
+		jdbcTemplate.execute("""
+				INSERT INTO tool_usage_stats (tool_id, demanded_quantity, broken_quantity, updated_at)
+				SELECT id, id % 1000, CASE WHEN id % 50 = 0 THEN id % 7 + 1 ELSE 0 END, now()
+				FROM tools
+				WHERE name LIKE 'explain-tool-%'
+				ON CONFLICT (tool_id) DO NOTHING
+				""");
+		jdbcTemplate.execute("""
+				WITH c AS (SELECT id, row_number() OVER (ORDER BY id) AS n
+				           FROM tool_cribs WHERE name LIKE 'explain-crib-%'),
+				     t AS (SELECT array_agg(id ORDER BY id) AS ids FROM tools WHERE name LIKE 'explain-tool-%')
+				INSERT INTO tool_usage_daily (bucket_date, tool_crib_id, tool_id, request_count, requested_quantity,
+				                              approved_quantity, returned_quantity, broken_quantity, fine_amount)
+				SELECT CAST(now() AS date) - d, c.id, t.ids[c.n], 1, 1, 1, 1, 0, 0
+				FROM c, t, generate_series(0, 364) d
+				WHERE c.n <= 200
+				ON CONFLICT DO NOTHING
+				""");
+		jdbcTemplate.execute("ANALYZE");
+	}
+}
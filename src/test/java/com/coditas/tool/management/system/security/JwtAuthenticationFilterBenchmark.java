@@ -0,0 +1,96 @@
+package com.coditas.tool.management.system.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+
+//Filter throughput for stateless (cached principal) vs per-request principal resolution.
+//The resolver is stubbed; resolveCost burns CPU in place of the user lookup round trip.
+//Run with: mvn test-compile exec:exec (the pom's default jmh.benchmark)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+	private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+	private static final String EMAIL = "worker@bench.local";
+
+	@Param({"true", "false"})
+	public boolean stateless;
+
+	@Param({"0", "20000"})
+	public long resolveCost;
+
+	private JwtAuthenticationFilter filter;
+	private String authorization;
+
+	@Setup
+	public void setUp() {
+		JwtHelper jwtHelper = new JwtHelper();
+		jwtHelper.secret = SECRET;
+		jwtHelper.jwtTokenValidity = TimeUnit.HOURS.toMillis(1);
+		ReflectionTestUtils.setField(jwtHelper, "tokenCacheMaxSize", 10000);
+		ReflectionTestUtils.setField(jwtHelper, "tokenCacheTtl", 300000L);
+		ReflectionTestUtils.setField(jwtHelper, "meterRegistry", new SimpleMeterRegistry());
+		jwtHelper.init();
+
+		AuthenticatedUserCache cache = new AuthenticatedUserCache();
+		ReflectionTestUtils.setField(cache, "principalTtlMillis", 60000L);
+		ReflectionTestUtils.setField(cache, "maxPrincipals", 10000);
+		ReflectionTestUtils.setField(cache, "jwtTokenValidity", TimeUnit.HOURS.toMillis(1));
+
+		AuthenticatedUser user = AuthenticatedUser.builder()
+				.id(1L)
+				.name("Bench Worker")
+				.email(EMAIL)
+				.active(true)
+				.roles(List.of("ROLE_WORKER"))
+				.build();
+		AuthenticatedUserResolver resolver = Mockito.mock(AuthenticatedUserResolver.class);
+		Mockito.when(resolver.resolve(anyString(), anyList())).thenAnswer(invocation -> {
+			Blackhole.consumeCPU(resolveCost);
+			return Optional.of(user);
+		});
+
+		filter = new JwtAuthenticationFilter(jwtHelper, resolver, cache);
+		ReflectionTestUtils.setField(filter, "stateless", stateless);
+		authorization = "Bearer " + jwtHelper.generateToken(EMAIL, user.getRoles());
+	}
+
+	@Benchmark
+	public Authentication authenticate() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/worker/inventory");
+		request.addHeader("Authorization", authorization);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		SecurityContextHolder.clearContext();
+		return authentication;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
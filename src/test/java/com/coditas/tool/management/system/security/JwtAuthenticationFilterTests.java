@@ -0,0 +1,75 @@
+package com.coditas.tool.management.system.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+
+class JwtAuthenticationFilterTests {
+
+	private static final String EMAIL = "worker@test.local";
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void activeUserIsAuthenticated() throws Exception {
+		authenticate(true);
+
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+	}
+
+	@Test
+	void deactivatedUserIsNotAuthenticated() throws Exception {
+		authenticate(false);
+
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+	}
+
+	private void authenticate(boolean active) throws Exception {
+		JwtHelper jwtHelper = new JwtHelper();
+		jwtHelper.secret = "unit-test-secret-unit-test-secret-unit-test-secret-unit-test-secret";
+		jwtHelper.jwtTokenValidity = TimeUnit.HOURS.toMillis(1);
+		ReflectionTestUtils.setField(jwtHelper, "tokenCacheMaxSize", 100);
+		ReflectionTestUtils.setField(jwtHelper, "tokenCacheTtl", 300000L);
+		ReflectionTestUtils.setField(jwtHelper, "meterRegistry", new SimpleMeterRegistry());
+		jwtHelper.init();
+
+		AuthenticatedUserCache cache = new AuthenticatedUserCache();
+		ReflectionTestUtils.setField(cache, "principalTtlMillis", 60000L);
+		ReflectionTestUtils.setField(cache, "maxPrincipals", 100);
+		ReflectionTestUtils.setField(cache, "jwtTokenValidity", TimeUnit.HOURS.toMillis(1));
+
+		AuthenticatedUser user = AuthenticatedUser.builder()
+				.id(1L)
+				.name("Worker")
+				.email(EMAIL)
+				.active(active)
+				.roles(List.of("ROLE_WORKER"))
+				.build();
+		AuthenticatedUserResolver resolver = Mockito.mock(AuthenticatedUserResolver.class);
+		Mockito.when(resolver.resolve(anyString(), anyList())).thenReturn(Optional.of(user));
+
+		JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtHelper, resolver, cache);
+		ReflectionTestUtils.setField(filter, "stateless", true);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/worker/inventory");
+		request.addHeader("Authorization", "Bearer " + jwtHelper.generateToken(EMAIL, user.getRoles()));
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+	}
+}
@@ -0,0 +1,147 @@
+package com.coditas.tool.management.system.service;
+
+import com.coditas.tool.management.system.PostgresIntegrationTest;
+import com.coditas.tool.management.system.constant.RequestStatus;
+import com.coditas.tool.management.system.constant.ReturnStatus;
+import com.coditas.tool.management.system.constant.ToolCategory;
+import com.coditas.tool.management.system.dto.tool.ToolReturnRequestDTO;
+import com.coditas.tool.management.system.entity.*;
+import com.coditas.tool.management.system.repository.ToolInventoryRepository;
+import com.coditas.tool.management.system.repository.ToolRequestItemRepository;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//Many crib managers hitting the same item at once: exactly one decision/return may win and stock moves once
+class ToolRequestConcurrencyTests extends PostgresIntegrationTest {
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	private ToolRequestService toolRequestService;
+
+	@Autowired
+	private ToolInventoryRepository toolInventoryRepository;
+
+	@Autowired
+	private ToolRequestItemRepository toolRequestItemRepository;
+
+	@Test
+	void concurrentApprovalsReserveStockOnce() throws Exception {
+		Seed seed = seed(10L, 3L, RequestStatus.PENDING);
+
+		List<Boolean> outcomes = race(seed.manager(), () -> {
+			try {
+				toolRequestService.decideNormalToolRequest(seed.item().getId(), true);
+				return true;
+			} catch (BadRequestException e) {
+				return false;
+			}
+		});
+
+		assertThat(outcomes).filteredOn(Boolean::booleanValue).hasSize(1);
+		assertThat(available(seed)).isEqualTo(7L);
+		assertThat(reload(seed).getApprovalStatus()).isEqualTo(RequestStatus.APPROVED);
+	}
+
+	@Test
+	void approvalWithoutStockLeavesItemPending() {
+		Seed seed = seed(1L, 3L, RequestStatus.PENDING);
+
+		assertThatThrownBy(() -> runAs(seed.manager(), () -> {
+			toolRequestService.decideNormalToolRequest(seed.item().getId(), true);
+			return null;
+		})).hasCauseInstanceOf(BadRequestException.class);
+
+		assertThat(available(seed)).isEqualTo(1L);
+		assertThat(reload(seed).getApprovalStatus()).isEqualTo(RequestStatus.PENDING);
+	}
+
+	@Test
+	void concurrentReturnsReleaseStockOnce() throws Exception {
+		//Approved item: 3 of 10 already out of the crib
+		Seed seed = seed(7L, 3L, RequestStatus.APPROVED);
+
+		List<Boolean> outcomes = race(seed.manager(), () -> {
+			try {
+				toolRequestService.returnTool(new ToolReturnRequestDTO(seed.item().getId(), 3L, LocalDateTime.now()));
+				return true;
+			} catch (IllegalArgumentException e) {
+				return false;
+			}
+		});
+
+		assertThat(outcomes).filteredOn(Boolean::booleanValue).hasSize(1);
+		assertThat(available(seed)).isEqualTo(10L);
+		assertThat(reload(seed).getReturnStatus()).isEqualTo(ReturnStatus.RETURNED);
+	}
+
+	private List<Boolean> race(AuthenticatedUser user, Callable<Boolean> task) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					return runAs(user, task);
+				}));
+			}
+			start.countDown();
+
+			List<Boolean> outcomes = new ArrayList<>();
+			for (Future<Boolean> future : futures) {
+				outcomes.add(future.get(30, TimeUnit.SECONDS));
+			}
+			return outcomes;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private <T> T runAs(AuthenticatedUser user, Callable<T> task) throws Exception {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+		try {
+			return task.call();
+		} catch (BadRequestException e) {
+			throw new ExecutionException(e);
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private Seed seed(long available, long requested, RequestStatus approvalStatus) {
+		User manager = testData.user("manager");
+		User worker = testData.user("worker");
+		ToolCrib toolCrib = testData.toolCrib();
+		Tool tool = testData.tool(ToolCategory.NORMAL);
+		testData.stock(toolCrib, tool, 10L, available);
+		ToolRequestItem item = testData.requestItem(worker, toolCrib, tool, requested, approvalStatus);
+		return new Seed(testData.principal(manager, toolCrib, "ROLE_TOOLCRIBMANAGER"), toolCrib, tool, item);
+	}
+
+	private long available(Seed seed) {
+		return toolInventoryRepository.findByToolCribAndTool(seed.toolCrib(), seed.tool())
+				.orElseThrow()
+				.getAvailableQuantity();
+	}
+
+	private ToolRequestItem reload(Seed seed) {
+		return toolRequestItemRepository.findById(seed.item().getId()).orElseThrow();
+	}
+
+	private record Seed(AuthenticatedUser manager, ToolCrib toolCrib, Tool tool, ToolRequestItem item) {
+	}
+}
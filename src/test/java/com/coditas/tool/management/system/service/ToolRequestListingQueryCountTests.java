@@ -0,0 +1,112 @@
+package com.coditas.tool.management.system.service;
+
+import com.coditas.tool.management.system.PostgresIntegrationTest;
+import com.coditas.tool.management.system.constant.ToolCategory;
+import com.coditas.tool.management.system.dto.sharedResponse.CursorPage;
+import com.coditas.tool.management.system.dto.tool.ToolRequestItemDTO;
+import com.coditas.tool.management.system.entity.Tool;
+import com.coditas.tool.management.system.entity.ToolCrib;
+import com.coditas.tool.management.system.entity.User;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
+import com.coditas.tool.management.system.support.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Request-item listings map tool, request and worker of every row; they must come with the page query
+//(plus the count query for Page results) instead of 1 + 3N lazy loads
+class ToolRequestListingQueryCountTests extends PostgresIntegrationTest {
+
+	private static final int ROWS = 10;
+
+	@Autowired
+	private ToolRequestService toolRequestService;
+
+	private ToolCrib toolCrib;
+	private User worker;
+
+	@BeforeEach
+	void setUp() {
+		toolCrib = testData.toolCrib();
+		worker = testData.user("worker");
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void workerListingIsOnePageAndOneCountQuery() {
+		seed(ToolCategory.NORMAL);
+		authenticate(testData.principal(worker, toolCrib, "ROLE_WORKER"));
+
+		Page<ToolRequestItemDTO> page = count(() -> toolRequestService.getToolRequestsByWorker(null, null, 0, ROWS));
+
+		assertThat(page.getContent()).hasSize(ROWS);
+		assertThat(StatementCounter.count()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void workerCursorListingIsOneQuery() {
+		seed(ToolCategory.NORMAL);
+		authenticate(testData.principal(worker, toolCrib, "ROLE_WORKER"));
+
+		CursorPage<ToolRequestItemDTO> page = count(() ->
+				toolRequestService.getToolRequestsByWorker(null, null, (String) null, ROWS));
+
+		assertThat(page.getContent()).hasSize(ROWS);
+		assertThat(StatementCounter.count()).isEqualTo(1);
+	}
+
+	@Test
+	void cribManagerListingIsOnePageAndOneCountQuery() {
+		seed(ToolCategory.NORMAL);
+		authenticate(testData.principal(testData.user("crib-manager"), toolCrib, "ROLE_TOOLCRIBMANAGER"));
+
+		Page<ToolRequestItemDTO> page = count(() ->
+				toolRequestService.getAllToolRequestsForCribManager(0, ROWS, null, null, null, null));
+
+		assertThat(page.getContent()).hasSize(ROWS);
+		assertThat(StatementCounter.count()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void specialRequestListingIsOnePageAndOneCountQuery() {
+		seed(ToolCategory.SPECIAL);
+		authenticate(testData.principal(testData.user("workplace-manager"), toolCrib, "ROLE_WORKPLACEMANAGER"));
+
+		Page<ToolRequestItemDTO> page = count(() ->
+				toolRequestService.getSpecialRequestsForManager(0, ROWS, null, null, null, null));
+
+		assertThat(page.getContent()).hasSize(ROWS);
+		assertThat(StatementCounter.count()).isLessThanOrEqualTo(2);
+	}
+
+	//Every row gets its own tool, so nothing is served from the persistence context by accident
+	private void seed(ToolCategory category) {
+		for (int i = 0; i < ROWS; i++) {
+			Tool tool = testData.tool(category);
+			testData.stock(toolCrib, tool, 10);
+			testData.requestItem(worker, toolCrib, tool, 1);
+		}
+	}
+
+	private void authenticate(AuthenticatedUser principal) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+	}
+
+	private <T> T count(Supplier<T> listing) {
+		StatementCounter.reset();
+		return listing.get();
+	}
+}
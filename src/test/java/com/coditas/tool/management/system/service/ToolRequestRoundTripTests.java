@@ -0,0 +1,85 @@
+package com.coditas.tool.management.system.service;
+
+import com.coditas.tool.management.system.PostgresIntegrationTest;
+import com.coditas.tool.management.system.constant.ToolCategory;
+import com.coditas.tool.management.system.dto.tool.ToolRequestCreateDTO;
+import com.coditas.tool.management.system.dto.tool.ToolRequestItemDTO;
+import com.coditas.tool.management.system.entity.Tool;
+import com.coditas.tool.management.system.entity.ToolCrib;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
+import com.coditas.tool.management.system.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Round trips per createToolRequest call. The per-item path cost one tool lookup, one inventory lookup and
+//one insert per line (3N); the batched path loads and inserts all lines at once, so only the per-tool
+//dashboard upserts (stats + daily rollup) still scale, with distinct tools rather than lines.
+class ToolRequestRoundTripTests extends PostgresIntegrationTest {
+
+	private static final int LINES = 30;
+
+	@Autowired
+	private ToolRequestService toolRequestService;
+
+	private ToolCrib toolCrib;
+	private AuthenticatedUser worker;
+
+	@BeforeEach
+	void setUp() {
+		toolCrib = testData.toolCrib();
+		worker = testData.principal(testData.user("worker"), toolCrib, "ROLE_WORKER");
+	}
+
+	@Test
+	void linesOfTheSameToolCostNoExtraRoundTrips() {
+		Tool tool = stockedTool();
+		roundTrips(List.of(tool), 1); //warm-up
+
+		long oneLine = roundTrips(List.of(tool), 1);
+		long manyLines = roundTrips(List.of(tool), LINES);
+
+		assertThat(manyLines).as("round trips for %d lines vs 1 line", LINES).isEqualTo(oneLine);
+	}
+
+	@Test
+	void distinctToolsOnlyAddTheDashboardUpserts() {
+		List<Tool> tools = new ArrayList<>();
+		for (int i = 0; i < LINES; i++) {
+			tools.add(stockedTool());
+		}
+		roundTrips(tools.subList(0, 1), 1); //warm-up
+
+		long oneTool = roundTrips(tools.subList(0, 1), 1);
+		long allTools = roundTrips(tools, 1);
+
+		assertThat(allTools - oneTool)
+				.as("extra round trips for %d distinct tools (%d total, per-item path needed %d)",
+						LINES - 1, allTools, 3 * LINES)
+				.isLessThanOrEqualTo(2L * (LINES - 1));
+	}
+
+	private Tool stockedTool() {
+		Tool tool = testData.tool(ToolCategory.NORMAL);
+		testData.stock(toolCrib, tool, 10_000);
+		return tool;
+	}
+
+	private long roundTrips(List<Tool> tools, int linesPerTool) {
+		List<ToolRequestItemDTO> items = new ArrayList<>();
+		for (Tool tool : tools) {
+			for (int i = 0; i < linesPerTool; i++) {
+				items.add(ToolRequestItemDTO.builder().toolId(tool.getId()).reqQuantity(1L).build());
+			}
+		}
+
+		StatementCounter.reset();
+		toolRequestService.createToolRequest(worker, new ToolRequestCreateDTO(items));
+		return StatementCounter.count();
+	}
+}
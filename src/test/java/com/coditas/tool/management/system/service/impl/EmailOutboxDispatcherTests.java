@@ -0,0 +1,186 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.PostgresIntegrationTest;
+import com.coditas.tool.management.system.constant.EmailStatus;
+import com.coditas.tool.management.system.entity.EmailOutbox;
+import com.coditas.tool.management.system.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+//Claim, send and bookkeeping against the real outbox table. The dispatcher runs the batch on the calling thread
+//and sends through a stubbed JavaMailSender that records each batch and can fail chosen recipients.
+class EmailOutboxDispatcherTests extends PostgresIntegrationTest {
+
+	private static final int MAX_ATTEMPTS = 3;
+	private static final Duration RETRY_BACKOFF = Duration.ofSeconds(30);
+	private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private JavaMailSender mailSender;
+	private EmailOutboxDispatcher dispatcher;
+	private List<List<String>> batches;
+
+	@BeforeEach
+	void setUp() {
+		emailOutboxRepository.deleteAllInBatch();
+		mailSender = Mockito.mock(JavaMailSender.class);
+		batches = new ArrayList<>();
+		dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, Runnable::run, transactionManager,
+				new SimpleMeterRegistry(), 10, MAX_ATTEMPTS, RETRY_BACKOFF, CLAIM_TIMEOUT, Duration.ofSeconds(30));
+		failing();
+	}
+
+	@Test
+	void sentBatchGoesOutInOneCall() {
+		EmailOutbox first = queued("first@test.local", EmailStatus.PENDING, 0);
+		EmailOutbox second = queued("second@test.local", EmailStatus.PENDING, 0);
+		EmailOutbox third = queued("third@test.local", EmailStatus.PENDING, 0);
+
+		dispatcher.dispatch();
+
+		assertThat(batches).hasSize(1);
+		assertThat(batches.get(0)).containsExactlyInAnyOrder("first@test.local", "second@test.local", "third@test.local");
+		for (EmailOutbox email : List.of(first, second, third)) {
+			EmailOutbox reloaded = reload(email);
+			assertThat(reloaded.getStatus()).isEqualTo(EmailStatus.SENT);
+			assertThat(reloaded.getSentAt()).isNotNull();
+			assertThat(reloaded.getAttempts()).isZero();
+		}
+	}
+
+	@Test
+	void partiallyFailedBatchOnlyRetriesTheFailedMessages() {
+		EmailOutbox good = queued("good@test.local", EmailStatus.PENDING, 0);
+		EmailOutbox bad = queued("bad@test.local", EmailStatus.PENDING, 0);
+		failing("bad@test.local");
+
+		LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		dispatcher.dispatch();
+		LocalDateTime after = LocalDateTime.now();
+
+		assertThat(reload(good).getStatus()).isEqualTo(EmailStatus.SENT);
+		EmailOutbox retried = reload(bad);
+		assertThat(retried.getStatus()).isEqualTo(EmailStatus.PENDING);
+		assertThat(retried.getAttempts()).isEqualTo(1);
+		assertThat(retried.getLastError()).contains("550");
+		assertThat(retried.getNextAttemptAt()).isBetween(before.plus(RETRY_BACKOFF), after.plus(RETRY_BACKOFF));
+	}
+
+	@Test
+	void retriesBackOffExponentiallyAndWaitUntilDue() {
+		EmailOutbox email = queued("retry@test.local", EmailStatus.PENDING, 1);
+		failingConnection();
+
+		LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		dispatcher.dispatch();
+		LocalDateTime after = LocalDateTime.now();
+
+		EmailOutbox retried = reload(email);
+		assertThat(retried.getStatus()).isEqualTo(EmailStatus.PENDING);
+		assertThat(retried.getAttempts()).isEqualTo(2);
+		//Second failed attempt waits twice the base backoff
+		Duration backoff = RETRY_BACKOFF.multipliedBy(2);
+		assertThat(retried.getNextAttemptAt()).isBetween(before.plus(backoff), after.plus(backoff));
+
+		//Not due yet, so the next tick leaves it alone
+		dispatcher.dispatch();
+		assertThat(batches).hasSize(1);
+		assertThat(reload(email).getAttempts()).isEqualTo(2);
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() {
+		EmailOutbox email = queued("gone@test.local", EmailStatus.PENDING, MAX_ATTEMPTS - 1);
+		failing("gone@test.local");
+
+		dispatcher.dispatch();
+
+		EmailOutbox failed = reload(email);
+		assertThat(failed.getStatus()).isEqualTo(EmailStatus.FAILED);
+		assertThat(failed.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+
+		//Even once its next attempt time passes, a failed row is never claimed again
+		failed.setNextAttemptAt(LocalDateTime.now().minusMinutes(1));
+		emailOutboxRepository.save(failed);
+		dispatcher.dispatch();
+		assertThat(batches).hasSize(1);
+	}
+
+	@Test
+	void expiredClaimIsPickedUpAgain() {
+		//A dispatcher that claimed these and died before sending: one lease ran out, one is still held
+		EmailOutbox abandoned = queued("abandoned@test.local", EmailStatus.SENDING, 0);
+		EmailOutbox leased = queued("leased@test.local", EmailStatus.SENDING, 0);
+		leased.setNextAttemptAt(LocalDateTime.now().plus(CLAIM_TIMEOUT));
+		emailOutboxRepository.save(leased);
+
+		dispatcher.dispatch();
+
+		assertThat(batches).containsExactly(List.of("abandoned@test.local"));
+		assertThat(reload(abandoned).getStatus()).isEqualTo(EmailStatus.SENT);
+		assertThat(reload(leased).getStatus()).isEqualTo(EmailStatus.SENDING);
+	}
+
+	//Records every batch and rejects the given recipients the way JavaMailSenderImpl does, by naming the
+	//failed messages on a MailSendException
+	private void failing(String... recipients) {
+		List<String> rejected = Arrays.asList(recipients);
+		Mockito.doAnswer(invocation -> {
+			SimpleMailMessage[] messages = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+			batches.add(Arrays.stream(messages).map(message -> message.getTo()[0]).toList());
+			for (SimpleMailMessage message : messages) {
+				if (rejected.contains(message.getTo()[0])) {
+					throw new MailSendException(Map.of(message, new IllegalStateException("550 mailbox unavailable")));
+				}
+			}
+			return null;
+		}).when(mailSender).send(any(SimpleMailMessage[].class));
+	}
+
+	//Nothing was sent, e.g. the SMTP server refused the connection
+	private void failingConnection() {
+		Mockito.doAnswer(invocation -> {
+			SimpleMailMessage[] messages = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+			batches.add(Arrays.stream(messages).map(message -> message.getTo()[0]).toList());
+			throw new MailSendException("Connection refused");
+		}).when(mailSender).send(any(SimpleMailMessage[].class));
+	}
+
+	private EmailOutbox queued(String recipient, EmailStatus status, int attempts) {
+		return emailOutboxRepository.save(EmailOutbox.builder()
+				.recipient(recipient)
+				.subject("Subject")
+				.body("Body")
+				.status(status)
+				.attempts(attempts)
+				.nextAttemptAt(LocalDateTime.now().minusMinutes(1))
+				.build());
+	}
+
+	private EmailOutbox reload(EmailOutbox email) {
+		return emailOutboxRepository.findById(email.getId()).orElseThrow();
+	}
+}
@@ -0,0 +1,152 @@
+package com.coditas.tool.management.system.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+
+//Client selection and error mapping against mocked SDK clients; S3ServiceMinioTests covers the wire format
+class S3ServiceImplTests {
+
+	private static final String BUCKET = "tools-test";
+	private static final DataSize THRESHOLD = DataSize.ofKilobytes(8);
+
+	private S3Client s3Client;
+	private S3AsyncClient s3AsyncClient;
+	private S3ServiceImpl s3Service;
+
+	@BeforeEach
+	void setUp() {
+		s3Client = Mockito.mock(S3Client.class);
+		s3AsyncClient = Mockito.mock(S3AsyncClient.class);
+		s3Service = new S3ServiceImpl(s3Client, s3AsyncClient);
+		ReflectionTestUtils.setField(s3Service, "region", "ap-south-1");
+		ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+		ReflectionTestUtils.setField(s3Service, "multipartThreshold", THRESHOLD);
+	}
+
+	@Test
+	void smallUploadUsesSyncClient() {
+		s3Service.uploadBytes(new byte[(int) THRESHOLD.toBytes() - 1], "photos/small.webp", "image/webp");
+
+		ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+		Mockito.verify(s3Client).putObject(request.capture(), any(RequestBody.class));
+		Mockito.verifyNoInteractions(s3AsyncClient);
+		assertThat(request.getValue().bucket()).isEqualTo(BUCKET);
+		assertThat(request.getValue().key()).isEqualTo("photos/small.webp");
+		assertThat(request.getValue().contentType()).isEqualTo("image/webp");
+		assertThat(request.getValue().cacheControl()).contains("immutable");
+	}
+
+	@Test
+	void smallStreamIsSentWithItsLength() {
+		s3Service.upload(new ByteArrayInputStream(new byte[100]), 100, "photos/small.webp", "image/webp");
+
+		ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+		Mockito.verify(s3Client).putObject(request.capture(), any(RequestBody.class));
+		Mockito.verifyNoInteractions(s3AsyncClient);
+		assertThat(request.getValue().contentLength()).isEqualTo(100);
+	}
+
+	@Test
+	void uploadAtThresholdUsesMultipartClient() {
+		AtomicLong received = new AtomicLong();
+		Mockito.when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+				.thenAnswer(invocation -> drain(invocation.getArgument(1), received, null));
+
+		s3Service.upload(new ByteArrayInputStream(new byte[(int) THRESHOLD.toBytes()]), THRESHOLD.toBytes(),
+				"photos/large.webp", "image/webp");
+
+		Mockito.verify(s3AsyncClient).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+		Mockito.verifyNoInteractions(s3Client);
+		assertThat(received.get()).isEqualTo(THRESHOLD.toBytes());
+	}
+
+	@Test
+	void failedMultipartUploadSurfacesCause() {
+		IllegalStateException failure = new IllegalStateException("part upload failed");
+		Mockito.when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+				.thenAnswer(invocation -> drain(invocation.getArgument(1), new AtomicLong(), failure));
+
+		assertThatThrownBy(() -> s3Service.uploadBytes(new byte[(int) THRESHOLD.toBytes()], "photos/large.webp", "image/webp"))
+				.isInstanceOf(RuntimeException.class)
+				.hasCause(failure);
+	}
+
+	//Stands in for the multipart client: reads the whole body the caller writes, then completes the upload
+	//(or fails it with the given cause)
+	private static CompletableFuture<PutObjectResponse> drain(AsyncRequestBody body, AtomicLong received,
+			Throwable failure) {
+		CompletableFuture<PutObjectResponse> upload = new CompletableFuture<>();
+		body.subscribe(new Subscriber<>() {
+			@Override
+			public void onSubscribe(Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(ByteBuffer buffer) {
+				received.addAndGet(buffer.remaining());
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				upload.completeExceptionally(t);
+			}
+
+			@Override
+			public void onComplete() {
+				if (failure != null) {
+					upload.completeExceptionally(failure);
+				} else {
+					upload.complete(PutObjectResponse.builder().build());
+				}
+			}
+		});
+		return upload;
+	}
+
+	@Test
+	void existsReflectsHeadObject() {
+		Mockito.when(s3Client.headObject(any(HeadObjectRequest.class)))
+				.thenReturn(HeadObjectResponse.builder().build());
+
+		assertThat(s3Service.exists("photos/present.webp")).isTrue();
+	}
+
+	@Test
+	void missingKeyDoesNotExist() {
+		Mockito.when(s3Client.headObject(any(HeadObjectRequest.class)))
+				.thenThrow(NoSuchKeyException.builder().message("missing").build());
+
+		assertThat(s3Service.exists("photos/missing.webp")).isFalse();
+	}
+
+	@Test
+	void linkPointsAtBucketRegion() {
+		assertThat(s3Service.getLink("photos/a.webp"))
+				.isEqualTo("https://tools-test.s3.ap-south-1.amazonaws.com/photos/a.webp");
+	}
+}
@@ -0,0 +1,121 @@
+package com.coditas.tool.management.system.service.impl;
+
+import com.coditas.tool.management.system.config.S3Config;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Round trips through a real S3 API (MinIO) using the clients S3Config builds; the multipart threshold is
+//lowered to the S3 minimum part size so the large upload is split into several parts
+@Testcontainers(disabledWithoutDocker = true)
+class S3ServiceMinioTests {
+
+	private static final String BUCKET = "tools-test";
+	private static final DataSize PART_SIZE = DataSize.ofMegabytes(5);
+
+	@Container
+	static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-10-13T13-34-11Z");
+
+	private static S3Client s3Client;
+	private static S3AsyncClient s3AsyncClient;
+	private static S3ServiceImpl s3Service;
+
+	@BeforeAll
+	static void setUp() {
+		S3Config config = new S3Config();
+		ReflectionTestUtils.setField(config, "awsAccessKey", MINIO.getUserName());
+		ReflectionTestUtils.setField(config, "awsSecretKey", MINIO.getPassword());
+		ReflectionTestUtils.setField(config, "region", "us-east-1");
+		ReflectionTestUtils.setField(config, "endpoint", MINIO.getS3URL());
+		ReflectionTestUtils.setField(config, "maxConnections", 10);
+		ReflectionTestUtils.setField(config, "connectionTimeout", Duration.ofSeconds(5));
+		ReflectionTestUtils.setField(config, "multipartThreshold", PART_SIZE);
+		ReflectionTestUtils.setField(config, "partSize", PART_SIZE);
+		s3Client = config.s3Client();
+		s3AsyncClient = config.s3AsyncClient();
+		s3Client.createBucket(CreateBucketRequest.builder().bucket(BUCKET).build());
+
+		s3Service = new S3ServiceImpl(s3Client, s3AsyncClient);
+		ReflectionTestUtils.setField(s3Service, "region", "us-east-1");
+		ReflectionTestUtils.setField(s3Service, "bucketName", BUCKET);
+		ReflectionTestUtils.setField(s3Service, "multipartThreshold", PART_SIZE);
+	}
+
+	@AfterAll
+	static void tearDown() {
+		s3AsyncClient.close();
+		s3Client.close();
+	}
+
+	@Test
+	void smallUploadIsStoredWithHeaders() {
+		byte[] content = randomBytes(64 * 1024);
+
+		s3Service.uploadBytes(content, "photos/small.webp", "image/webp");
+
+		HeadObjectResponse head = head("photos/small.webp");
+		assertThat(head.contentType()).isEqualTo("image/webp");
+		assertThat(head.cacheControl()).contains("immutable");
+		assertThat(download("photos/small.webp")).isEqualTo(content);
+	}
+
+	@Test
+	void largeUploadIsStoredInParts() {
+		byte[] content = randomBytes((int) PART_SIZE.toBytes() * 2 + 1024);
+
+		s3Service.uploadBytes(content, "photos/large.webp", "image/webp");
+
+		//Multipart ETags carry the part count after the dash
+		assertThat(head("photos/large.webp").eTag()).matches("\"?[0-9a-f]+-3\"?");
+		assertThat(download("photos/large.webp")).isEqualTo(content);
+	}
+
+	@Test
+	void largeStreamIsUploadedInPartsAsItIsRead() {
+		byte[] content = randomBytes((int) PART_SIZE.toBytes() * 2 + 2048);
+
+		s3Service.upload(new ByteArrayInputStream(content), content.length, "photos/streamed.webp", "image/webp");
+
+		assertThat(head("photos/streamed.webp").eTag()).matches("\"?[0-9a-f]+-3\"?");
+		assertThat(download("photos/streamed.webp")).isEqualTo(content);
+	}
+
+	@Test
+	void existsOnlyForUploadedKeys() {
+		s3Service.uploadBytes(randomBytes(16), "photos/present.webp", "image/webp");
+
+		assertThat(s3Service.exists("photos/present.webp")).isTrue();
+		assertThat(s3Service.exists("photos/missing.webp")).isFalse();
+	}
+
+	private HeadObjectResponse head(String key) {
+		return s3Client.headObject(HeadObjectRequest.builder().bucket(BUCKET).key(key).build());
+	}
+
+	private byte[] download(String key) {
+		return s3Client.getObjectAsBytes(GetObjectRequest.builder().bucket(BUCKET).key(key).build()).asByteArray();
+	}
+
+	private static byte[] randomBytes(int length) {
+		byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,30 @@
+package com.coditas.tool.management.system.specification;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextSearchTests {
+
+	@Test
+	void shortTermsStaySubstringMatches() {
+		assertThat(TextSearch.likePattern("ab")).isEqualTo("%ab%");
+		assertThat(TextSearch.likePattern(" X ")).isEqualTo("%x%");
+	}
+
+	@Test
+	void longTermsAreSubstringMatches() {
+		assertThat(TextSearch.likePattern("Drill")).isEqualTo("%drill%");
+	}
+
+	@Test
+	void wildcardsAreEscaped() {
+		assertThat(TextSearch.likePattern("10%_a\\b")).isEqualTo("%10\\%\\_a\\\\b%");
+	}
+
+	@Test
+	void blankTermMatchesEverything() {
+		assertThat(TextSearch.likePattern("  ")).isEqualTo("%");
+		assertThat(TextSearch.likePattern(null)).isEqualTo("%");
+	}
+}
@@ -0,0 +1,46 @@
+package com.coditas.tool.management.system.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+//One statement as the application sent it, see StatementCounter.capture
+public record CapturedStatement(String sql, List<Binding> bindings) {
+
+	//Plans the statement with the same parameter values without executing it
+	public String explain(Connection connection) throws SQLException {
+		try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+			for (Binding binding : bindings) {
+				binding.apply(explain);
+			}
+			List<String> lines = new ArrayList<>();
+			try (ResultSet rs = explain.executeQuery()) {
+				while (rs.next()) {
+					lines.add(rs.getString(1));
+				}
+			}
+			return String.join("\n", lines);
+		}
+	}
+
+	public record Binding(Method setter, Object[] args) {
+
+		void apply(PreparedStatement statement) throws SQLException {
+			try {
+				setter.invoke(statement, args);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (InvocationTargetException e) {
+				if (e.getTargetException() instanceof SQLException sqlException) {
+					throw sqlException;
+				}
+				throw new IllegalStateException(e.getTargetException());
+			}
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.coditas.tool.management.system.support;
+
+import com.coditas.tool.management.system.repository.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+@TestConfiguration(proxyBeanMethods = false)
+public class IntegrationTestConfig {
+
+	@Bean
+	static BeanPostProcessor statementCountingDataSource() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return bean instanceof DataSource dataSource ? StatementCounter.wrap(dataSource) : bean;
+			}
+		};
+	}
+
+	@Bean
+	TestData testData(UserRepository userRepository, WorkplaceRepository workplaceRepository,
+					  ToolCribRepository toolCribRepository, ToolRepository toolRepository,
+					  ToolInventoryRepository toolInventoryRepository, ToolRequestRepository toolRequestRepository,
+					  ToolRequestItemRepository toolRequestItemRepository) {
+		return new TestData(userRepository, workplaceRepository, toolCribRepository, toolRepository,
+				toolInventoryRepository, toolRequestRepository, toolRequestItemRepository);
+	}
+}
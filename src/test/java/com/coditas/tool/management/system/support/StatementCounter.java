@@ -0,0 +1,110 @@
+package com.coditas.tool.management.system.support;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Counts statements sent to the database, one per execute* call (a JDBC batch counts once), which is the
+//number of round trips. Installed around the application DataSource by IntegrationTestConfig.
+//The count is global, so only single-threaded tests should assert on it.
+//capture() additionally records the SQL and bound parameters of every statement the work executes.
+public final class StatementCounter {
+
+	private static final AtomicLong COUNT = new AtomicLong();
+	private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+			"executeLargeUpdate", "executeBatch", "executeLargeBatch");
+	private static final Set<String> BATCH_METHODS = Set.of("executeBatch", "executeLargeBatch");
+
+	private static final List<CapturedStatement> CAPTURED = Collections.synchronizedList(new ArrayList<>());
+	private static volatile boolean capturing;
+
+	private StatementCounter() {
+	}
+
+	public static void reset() {
+		COUNT.set(0);
+	}
+
+	public static long count() {
+		return COUNT.get();
+	}
+
+	//Batches are not captured, they are inserts/updates keyed by primary key
+	public static List<CapturedStatement> capture(Runnable work) {
+		CAPTURED.clear();
+		capturing = true;
+		try {
+			work.run();
+		} finally {
+			capturing = false;
+		}
+		synchronized (CAPTURED) {
+			return List.copyOf(CAPTURED);
+		}
+	}
+
+	static DataSource wrap(DataSource dataSource) {
+		return proxy(DataSource.class, dataSource, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, T target, String sql) {
+		List<CapturedStatement.Binding> bindings = new ArrayList<>();
+		return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[]{type},
+				(instance, method, args) -> {
+					Object result;
+					try {
+						result = method.invoke(target, args);
+					} catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+
+					String preparedSql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+					if (result instanceof CallableStatement statement) {
+						return proxy(CallableStatement.class, statement, preparedSql);
+					}
+					if (result instanceof PreparedStatement statement) {
+						return proxy(PreparedStatement.class, statement, preparedSql);
+					}
+					if (result instanceof Statement statement) {
+						return proxy(Statement.class, statement, null);
+					}
+					if (result instanceof Connection connection) {
+						return proxy(Connection.class, connection, null);
+					}
+
+					if (target instanceof PreparedStatement) {
+						record(method, args, bindings);
+					}
+					if (target instanceof Statement && EXECUTE_METHODS.contains(method.getName())) {
+						COUNT.incrementAndGet();
+						if (capturing && !BATCH_METHODS.contains(method.getName())) {
+							CAPTURED.add(sql != null && (args == null || args.length == 0)
+									? new CapturedStatement(sql, List.copyOf(bindings))
+									: new CapturedStatement((String) args[0], List.of()));
+						}
+					}
+					return result;
+				});
+	}
+
+	//Parameter setters are set*(index, value[, type...]); single-argument setters are statement options
+	private static void record(Method method, Object[] args, List<CapturedStatement.Binding> bindings) {
+		if (method.getName().equals("clearParameters")) {
+			bindings.clear();
+		} else if (method.getName().startsWith("set") && args != null && args.length >= 2
+				&& args[0] instanceof Integer) {
+			bindings.add(new CapturedStatement.Binding(method, args.clone()));
+		}
+	}
+}
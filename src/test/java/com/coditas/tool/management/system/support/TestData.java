@@ -0,0 +1,122 @@
+package com.coditas.tool.management.system.support;
+
+import com.coditas.tool.management.system.constant.RequestStatus;
+import com.coditas.tool.management.system.constant.ReturnStatus;
+import com.coditas.tool.management.system.constant.ToolCategory;
+import com.coditas.tool.management.system.entity.*;
+import com.coditas.tool.management.system.repository.*;
+import com.coditas.tool.management.system.security.AuthenticatedUser;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+//Minimal persisted fixtures for integration tests; every name is unique so tests never collide
+public class TestData {
+
+	private final UserRepository userRepository;
+	private final WorkplaceRepository workplaceRepository;
+	private final ToolCribRepository toolCribRepository;
+	private final ToolRepository toolRepository;
+	private final ToolInventoryRepository toolInventoryRepository;
+	private final ToolRequestRepository toolRequestRepository;
+	private final ToolRequestItemRepository toolRequestItemRepository;
+
+	public TestData(UserRepository userRepository, WorkplaceRepository workplaceRepository,
+					ToolCribRepository toolCribRepository, ToolRepository toolRepository,
+					ToolInventoryRepository toolInventoryRepository, ToolRequestRepository toolRequestRepository,
+					ToolRequestItemRepository toolRequestItemRepository) {
+		this.userRepository = userRepository;
+		this.workplaceRepository = workplaceRepository;
+		this.toolCribRepository = toolCribRepository;
+		this.toolRepository = toolRepository;
+		this.toolInventoryRepository = toolInventoryRepository;
+		this.toolRequestRepository = toolRequestRepository;
+		this.toolRequestItemRepository = toolRequestItemRepository;
+	}
+
+	public User user(String prefix) {
+		String name = prefix + "-" + UUID.randomUUID();
+		return userRepository.save(User.builder()
+				.name(name)
+				.email(name + "@test.local")
+				.password("{noop}secret")
+				.active(true)
+				.build());
+	}
+
+	public ToolCrib toolCrib() {
+		String suffix = UUID.randomUUID().toString();
+		Workplace workplace = workplaceRepository.save(Workplace.builder()
+				.name("Workplace " + suffix)
+				.build());
+		return toolCribRepository.save(ToolCrib.builder()
+				.name("Crib " + suffix)
+				.workplace(workplace)
+				.build());
+	}
+
+	public Tool tool(ToolCategory category) {
+		return toolRepository.save(Tool.builder()
+				.name("Tool " + UUID.randomUUID())
+				.price(100L)
+				.fineAmount(10L)
+				.isPerishable(false)
+				.returnPeriod(5)
+				.category(category)
+				.build());
+	}
+
+	public ToolInventory stock(ToolCrib toolCrib, Tool tool, long available) {
+		return stock(toolCrib, tool, available, available);
+	}
+
+	//Stock with total - available units currently lent out
+	public ToolInventory stock(ToolCrib toolCrib, Tool tool, long total, long available) {
+		return toolInventoryRepository.save(ToolInventory.builder()
+				.toolCrib(toolCrib)
+				.tool(tool)
+				.totalQuantity(total)
+				.availableQuantity(available)
+				.brokenQuantity(0L)
+				.minimumThreshold(0L)
+				.build());
+	}
+
+	public ToolRequestItem requestItem(User worker, ToolCrib toolCrib, Tool tool, long quantity) {
+		return requestItem(worker, toolCrib, tool, quantity, RequestStatus.PENDING);
+	}
+
+	public ToolRequestItem requestItem(User worker, ToolCrib toolCrib, Tool tool, long quantity,
+									   RequestStatus approvalStatus) {
+		ToolRequest request = toolRequestRepository.save(ToolRequest.builder()
+				.worker(worker)
+				.workplace(toolCrib.getWorkplace())
+				.requestStatus(RequestStatus.PENDING)
+				.requestDate(LocalDateTime.now())
+				.returnDate(LocalDateTime.now().plusDays(5))
+				.build());
+		return toolRequestItemRepository.save(ToolRequestItem.builder()
+				.toolRequest(request)
+				.tool(tool)
+				.reqQuantity(quantity)
+				.approvalStatus(approvalStatus)
+				.returnStatus(ReturnStatus.PENDING)
+				.returnDate(request.getReturnDate())
+				.build());
+	}
+
+	//Principal as the JWT filter would resolve it for a user working at the crib's workplace
+	public AuthenticatedUser principal(User user, ToolCrib toolCrib, String role) {
+		return AuthenticatedUser.builder()
+				.id(user.getId())
+				.name(user.getName())
+				.email(user.getEmail())
+				.active(true)
+				.roles(List.of(role))
+				.workstationId(-1L)
+				.workplaceId(toolCrib.getWorkplace().getId())
+				.toolCribId(toolCrib.getId())
+				.build();
+	}
+}